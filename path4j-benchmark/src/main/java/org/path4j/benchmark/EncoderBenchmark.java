@@ -0,0 +1,120 @@
+package org.path4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.path4j.NodeName;
+import org.path4j.benchmark.PathCorpora.CorpusKind;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+import org.path4j.encoder.NodeNameEncoderOption;
+import org.path4j.encoder.NodeNameEncoderOption.EncodeSizeResult;
+import org.path4j.encoder.NodeNameInterner;
+import org.path4j.impl.StringNodeName;
+import org.path4j.impl.encoders.ByteStructNodeNameEncoderOptions;
+import org.path4j.impl.encoders.CharStructNodeNameEncoderOptions;
+import org.path4j.impl.encoders.DefaultNodeNameEncoderOptions;
+
+import lombok.val;
+
+/**
+ * DefaultNodeNameEncoder.encode() of single names, versus:
+ * <ul>
+ * <li>linear probe of all encoder options (previous DefaultNodeNameEncoder algorithm)</li>
+ * <li>plain StringNodeName</li>
+ * </ul>
+ * run with "-prof gc" for allocated bytes per encoded name
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncoderBenchmark {
+
+	/**
+	 * interner never retaining names
+	 */
+	private static class NoOpNodeNameInterner extends NodeNameInterner {
+		@Override
+		public NodeName get(NodeName name) {
+			return null;
+		}
+		@Override
+		public NodeName intern(NodeName name) {
+			return name;
+		}
+		@Override
+		public int size() {
+			return 0;
+		}
+	}
+
+	@Param({ "LINUX_TREE", "MAVEN_REPO", "S3_KEYS" })
+	public CorpusKind corpus;
+
+	private String[] names;
+	private int index;
+
+	private DefaultNodeNameEncoder encoder;
+	private List<NodeNameEncoderOption> options;
+	private final EncodeSizeResult sizeRes = new EncodeSizeResult();
+
+	@Setup
+	public void setup() {
+		this.names = PathCorpora.distinctNames(PathCorpora.generate(corpus, 20_000));
+		this.options = new ArrayList<>();
+		options.addAll(ByteStructNodeNameEncoderOptions.DEFAULTS);
+		options.addAll(CharStructNodeNameEncoderOptions.DEFAULTS);
+		// no-op interner: lookups always miss without hashing, so only encoding is measured, as in encodeLinearProbe()
+		this.encoder = DefaultNodeNameEncoder.withInterner(options, 0, null, new NoOpNodeNameInterner());
+	}
+
+	private String nextName() {
+		val i = index;
+		index = (i + 1 == names.length)? 0 : i + 1;
+		return names[i];
+	}
+
+	@Benchmark
+	public NodeName encodeDispatch() {
+		return encoder.encode(nextName());
+	}
+
+	@Benchmark
+	public NodeName encodeLinearProbe() {
+		val name = nextName();
+		NodeName res = null;
+		int bestSizeSoFar = DefaultNodeNameEncoderOptions.defaultStringEncoderSize(name);
+		sizeRes.estimatedSize = bestSizeSoFar;
+		for(val e: options) {
+			NodeName tmpres = e.tryEncode(name, bestSizeSoFar, sizeRes);
+			if (tmpres != null && sizeRes.estimatedSize < bestSizeSoFar) {
+				bestSizeSoFar = sizeRes.estimatedSize;
+				res = tmpres;
+			}
+		}
+		if (res == null) {
+			res = DefaultNodeNameEncoderOptions.CHAR_ARRAY_OPTION.tryEncode(name, bestSizeSoFar, sizeRes);
+		}
+		return res;
+	}
+
+	@Benchmark
+	public NodeName encodeStringNodeName() {
+		return new StringNodeName(nextName());
+	}
+
+}
@@ -0,0 +1,99 @@
+package org.path4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.path4j.NodeNamesPath;
+import org.path4j.benchmark.PathCorpora.CorpusKind;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+import org.path4j.encoder.NodeNameEncoderOption;
+import org.path4j.encoder.NodeNameInterner;
+import org.path4j.impl.encoders.ByteStructNodeNameEncoderOptions;
+import org.path4j.impl.encoders.CharStructNodeNameEncoderOptions;
+import org.path4j.impl.interners.BoundedNodeNameInterner;
+import org.path4j.impl.interners.ConcurrentNodeNameInterner;
+import org.path4j.impl.interners.CopyOnWriteNodeNameInterner;
+
+import lombok.val;
+
+/**
+ * encodePath() with interning of all names, under contention of 8 threads sharing the same encoder
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class InterningBenchmark {
+
+	public static enum InternerKind {
+		CONCURRENT, COPY_ON_WRITE, BOUNDED
+	}
+
+	private static final int PATH_COUNT = 8192;
+
+	@State(Scope.Benchmark)
+	public static class SharedEncoder {
+
+		@Param({ "LINUX_TREE", "MAVEN_REPO", "S3_KEYS" })
+		public CorpusKind corpus;
+
+		@Param({ "CONCURRENT", "COPY_ON_WRITE", "BOUNDED" })
+		public InternerKind interner;
+
+		String[] paths;
+		DefaultNodeNameEncoder encoder;
+
+		@Setup
+		public void setup() {
+			this.paths = PathCorpora.generate(corpus, PATH_COUNT);
+			val options = new ArrayList<NodeNameEncoderOption>();
+			options.addAll(ByteStructNodeNameEncoderOptions.DEFAULTS);
+			options.addAll(CharStructNodeNameEncoderOptions.DEFAULTS);
+			NodeNameInterner nameInterner;
+			switch(interner) {
+			case CONCURRENT: nameInterner = new ConcurrentNodeNameInterner(); break;
+			case COPY_ON_WRITE: nameInterner = new CopyOnWriteNodeNameInterner(); break;
+			case BOUNDED: nameInterner = new BoundedNodeNameInterner(256 * 1024); break;
+			default: throw new IllegalArgumentException();
+			}
+			this.encoder = DefaultNodeNameEncoder.withInterner(options, 0, name -> true, nameInterner);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadCursor {
+		int index;
+
+		@Setup
+		public void setup() {
+			// threads start at different paths
+			this.index = (int) (Thread.currentThread().getId() * 997) & (PATH_COUNT - 1);
+		}
+
+		int next() {
+			val i = index;
+			index = (i + 1) & (PATH_COUNT - 1);
+			return i;
+		}
+	}
+
+	@Benchmark
+	public NodeNamesPath encodePathInterned(SharedEncoder shared, ThreadCursor cursor) {
+		return shared.encoder.encodePath(shared.paths[cursor.next()]);
+	}
+
+}
@@ -0,0 +1,180 @@
+package org.path4j.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.path4j.NodeName;
+import org.path4j.NodeNamesPath;
+import org.path4j.benchmark.PathCorpora.CorpusKind;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+import org.path4j.encoder.NodeNameEncoderOption.EncodeSizeResult;
+import org.path4j.impl.StringNodeName;
+import org.path4j.impl.arena.ArenaNodeNameEncoder;
+import org.path4j.impl.encoders.ByteArrayNodeNameEncoderOptions;
+import org.path4j.index.MappedPathIndex;
+import org.path4j.index.MappedPathIndexWriter;
+
+import lombok.val;
+
+/**
+ * NodeName compareTo() / hashCode() / equals() and writeUTF(), 
+ * for encoded names versus StringNodeName of the same texts.
+ * 
+ * encodings other than DEFAULT use non-ascii names, so that chars are accessed sequentially (NodeName.isRandomAccess() false).
+ * run with "-prof gc": compare/hash/equals should allocate 0 bytes per op, for all encodings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodeNameBenchmark {
+
+	public static enum Encoding {
+		/** DefaultNodeNameEncoder.createDefault() of corpus names */
+		DEFAULT,
+		/** Utf8ByteArrayNodeName of non-ascii names */
+		UTF8_BYTES,
+		/** ArenaNodeName of non-ascii names */
+		ARENA,
+		/** MappedNodeName of non-ascii names */
+		MAPPED
+	}
+
+	@Param({ "LINUX_TREE", "MAVEN_REPO", "S3_KEYS" })
+	public CorpusKind corpus;
+
+	@Param({ "DEFAULT", "UTF8_BYTES", "ARENA", "MAPPED" })
+	public Encoding encoding;
+
+	private static final int NAME_COUNT = 4096;
+
+	private NodeName[] encodedNames;
+	private NodeName[] stringNames;
+	private int index;
+
+	private ByteArrayOutputStream buffer;
+	private DataOutputStream out;
+
+	@Setup
+	public void setup() throws IOException {
+		val corpusNames = PathCorpora.distinctNames(PathCorpora.generate(corpus, 20_000));
+		val names = new String[NAME_COUNT];
+		for(int i = 0; i < NAME_COUNT; i++) {
+			val name = corpusNames[i % corpusNames.length];
+			// first char encoded on 2 bytes, so that following chars are at variable byte offsets
+			names[i] = (encoding == Encoding.DEFAULT)? name : "\u00e9" + name;
+		}
+		this.encodedNames = encode(names);
+		this.stringNames = new NodeName[NAME_COUNT];
+		for(int i = 0; i < NAME_COUNT; i++) {
+			stringNames[i] = new StringNodeName(new String(names[i]));
+		}
+		this.buffer = new ByteArrayOutputStream(64 * 1024);
+		this.out = new DataOutputStream(buffer);
+	}
+
+	private NodeName[] encode(String[] names) throws IOException {
+		val res = new NodeName[names.length];
+		switch(encoding) {
+		case DEFAULT: {
+			val encoder = DefaultNodeNameEncoder.createDefault();
+			for(int i = 0; i < names.length; i++) {
+				res[i] = encoder.encode(names[i]);
+			}
+		} break;
+		case UTF8_BYTES: {
+			val sizeRes = new EncodeSizeResult();
+			for(int i = 0; i < names.length; i++) {
+				res[i] = ByteArrayNodeNameEncoderOptions.UTF8_OPTION.tryEncode(names[i], Integer.MAX_VALUE, sizeRes);
+			}
+		} break;
+		case ARENA: {
+			val encoder = new ArenaNodeNameEncoder();
+			for(int i = 0; i < names.length; i++) {
+				res[i] = encoder.encode(names[i]);
+			}
+		} break;
+		case MAPPED: {
+			val paths = new ArrayList<NodeNamesPath>();
+			for(val name : names) {
+				paths.add(NodeNamesPath.of(new StringNodeName(name)));
+			}
+			val file = Files.createTempFile("path4j-bench", ".idx");
+			file.toFile().deleteOnExit();
+			MappedPathIndexWriter.write(file, paths);
+			val index = MappedPathIndex.open(file);
+			for(int i = 0; i < names.length; i++) {
+				res[i] = index.name(index.nameIdOf(names[i]));
+			}
+		} break;
+		default: throw new IllegalStateException();
+		}
+		return res;
+	}
+
+	private int nextIndex() {
+		val i = index;
+		index = (i + 1) & (NAME_COUNT - 1);
+		return i;
+	}
+
+	@Benchmark
+	public int compareToEncoded() {
+		val i = nextIndex();
+		return encodedNames[i].compareTo(encodedNames[(i + 1) & (NAME_COUNT - 1)]);
+	}
+
+	@Benchmark
+	public int compareToString() {
+		val i = nextIndex();
+		return stringNames[i].compareTo(stringNames[(i + 1) & (NAME_COUNT - 1)]);
+	}
+
+	@Benchmark
+	public int hashCodeEncoded() {
+		return encodedNames[nextIndex()].hashCode();
+	}
+
+	@Benchmark
+	public int hashCodeString() {
+		return stringNames[nextIndex()].hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsCrossEncoding() {
+		val i = nextIndex();
+		return encodedNames[i].equals(stringNames[i]);
+	}
+
+	@Benchmark
+	public int writeUTFEncoded() throws IOException {
+		buffer.reset();
+		encodedNames[nextIndex()].writeUTF(out);
+		return buffer.size();
+	}
+
+	@Benchmark
+	public int writeUTFString() throws IOException {
+		buffer.reset();
+		stringNames[nextIndex()].writeUTF(out);
+		return buffer.size();
+	}
+
+}
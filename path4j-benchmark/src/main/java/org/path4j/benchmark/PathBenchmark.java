@@ -0,0 +1,146 @@
+package org.path4j.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.path4j.NodeName;
+import org.path4j.NodeNamesPath;
+import org.path4j.benchmark.PathCorpora.CorpusKind;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+
+import lombok.val;
+
+/**
+ * NodeNameEncoder.encodePath() from String and UTF-8 bytes, encodePaths() batch of sorted paths, and NodeNamesPath operations
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathBenchmark {
+
+	@Param({ "LINUX_TREE", "MAVEN_REPO", "S3_KEYS" })
+	public CorpusKind corpus;
+
+	private static final int PATH_COUNT = 8192;
+
+	private String[] paths;
+	/** paths sorted, as from a directory walk */
+	private String[] sortedPaths;
+	private byte[][] utf8Paths;
+	private NodeNamesPath[] encodedPaths;
+	/** equal to encodedPaths, but distinct instances, with no cached hashCode */
+	private NodeNamesPath[] encodedPathCopies;
+	private NodeName childName;
+	private int index;
+
+	private DefaultNodeNameEncoder encoder;
+
+	@Setup
+	public void setup() {
+		this.encoder = DefaultNodeNameEncoder.createDefault();
+		this.paths = PathCorpora.generate(corpus, PATH_COUNT);
+		this.sortedPaths = paths.clone();
+		Arrays.sort(sortedPaths);
+		this.utf8Paths = new byte[PATH_COUNT][];
+		for(int i = 0; i < PATH_COUNT; i++) {
+			utf8Paths[i] = paths[i].getBytes(StandardCharsets.UTF_8);
+		}
+		this.encodedPaths = PathCorpora.encodePaths(encoder, paths);
+		this.encodedPathCopies = new NodeNamesPath[PATH_COUNT];
+		for(int i = 0; i < PATH_COUNT; i++) {
+			encodedPathCopies[i] = NodeNamesPath.of(toArray(encodedPaths[i]));
+			encodedPaths[i].hashCode();
+		}
+		this.childName = encoder.encode("child.txt");
+	}
+
+	private static NodeName[] toArray(NodeNamesPath path) {
+		val res = new NodeName[path.size()];
+		for(int i = 0; i < res.length; i++) {
+			res[i] = path.get(i);
+		}
+		return res;
+	}
+
+	private int nextIndex() {
+		val i = index;
+		index = (i + 1) & (PATH_COUNT - 1);
+		return i;
+	}
+
+	@Benchmark
+	public NodeNamesPath encodePathString() {
+		return encoder.encodePath(paths[nextIndex()]);
+	}
+
+	@Benchmark
+	public NodeNamesPath encodePathUTF8() {
+		val utf8 = utf8Paths[nextIndex()];
+		return encoder.encodePath(utf8, 0, utf8.length);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PATH_COUNT)
+	public NodeNamesPath[] encodeSortedPathsOneByOne() {
+		val res = new NodeNamesPath[PATH_COUNT];
+		for(int i = 0; i < PATH_COUNT; i++) {
+			res[i] = encoder.encodePath(sortedPaths[i]);
+		}
+		return res;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PATH_COUNT)
+	public NodeNamesPath[] encodeSortedPathsBatch() {
+		return encoder.encodePaths(sortedPaths);
+	}
+
+	@Benchmark
+	public NodeNamesPath toChild() {
+		return encodedPaths[nextIndex()].toChild(childName);
+	}
+
+	@Benchmark
+	public NodeNamesPath toParent() {
+		return encodedPaths[nextIndex()].toParent();
+	}
+
+	@Benchmark
+	public int hashCodeCached() {
+		return encodedPaths[nextIndex()].hashCode();
+	}
+
+	@Benchmark
+	public int hashCodeUncached() {
+		// copy, for measuring full hash computation
+		return NodeNamesPath.of(toArray(encodedPaths[nextIndex()])).hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsDistinctInstances() {
+		val i = nextIndex();
+		return encodedPaths[i].equals(encodedPathCopies[i]);
+	}
+
+	@Benchmark
+	public String toPathSlash() {
+		return encodedPaths[nextIndex()].toPathSlash();
+	}
+
+}
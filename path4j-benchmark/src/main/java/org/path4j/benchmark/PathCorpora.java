@@ -0,0 +1,137 @@
+package org.path4j.benchmark;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import org.path4j.NodeNamesPath;
+import org.path4j.NodeNameEncoder;
+
+import lombok.val;
+
+/**
+ * realistic path corpora, generated locally with a fixed seed
+ */
+public final class PathCorpora {
+
+	public static enum CorpusKind {
+		/** synthetic Linux file-system tree: /usr/lib/.., /home/user/.., /var/log/.. */
+		LINUX_TREE,
+		/** Maven local repository layout: /home/user/.m2/repository/org/group/artifact/version/artifact-version.jar */
+		MAVEN_REPO,
+		/** S3-style object keys: tenant/yyyy/mm/dd/dataset/part-nnnnn-hash.parquet */
+		S3_KEYS
+	}
+
+	private static final String[] LINUX_TOP = { "usr", "home", "var", "etc", "opt", "srv" };
+	private static final String[] LINUX_DIRS = { "bin", "lib", "lib64", "share", "include", "local", "src", "log", "cache", 
+			"doc", "man", "man1", "locale", "fonts", "icons", "python3", "site-packages", "node_modules", "dist", "build" };
+	private static final String[] LINUX_EXTS = { "", ".so", ".so.1", ".h", ".py", ".pyc", ".conf", ".log", ".gz", ".txt", ".md", ".json", ".js" };
+
+	private static final String[] MAVEN_GROUPS = { "org/apache/commons", "org/springframework/boot", "com/google/guava", 
+			"com/fasterxml/jackson/core", "io/netty", "org/slf4j", "junit", "org/projectlombok", "org/ow2/asm", "io/micrometer" };
+	private static final String[] MAVEN_ARTIFACT_WORDS = { "core", "api", "commons", "boot", "starter", "annotations", "databind", 
+			"codec", "handler", "transport", "common", "test", "autoconfigure", "web", "io", "lang3" };
+	private static final String[] MAVEN_FILE_EXTS = { ".jar", ".pom", ".jar.sha1", ".pom.sha1", "-sources.jar" };
+
+	private static final String[] S3_DATASETS = { "events", "clicks", "impressions", "orders", "logs", "metrics" };
+
+	private PathCorpora() {
+	}
+
+	// ------------------------------------------------------------------------
+
+	public static String[] generate(CorpusKind kind, int count, long seed) {
+		val rand = new Random(seed);
+		val res = new String[count];
+		for(int i = 0; i < count; i++) {
+			switch(kind) {
+			case LINUX_TREE: res[i] = linuxPath(rand); break;
+			case MAVEN_REPO: res[i] = mavenPath(rand); break;
+			case S3_KEYS: res[i] = s3Key(rand); break;
+			default: throw new IllegalArgumentException();
+			}
+		}
+		return res;
+	}
+
+	public static String[] generate(CorpusKind kind, int count) {
+		return generate(kind, count, 12345L);
+	}
+
+	/**
+	 * @return distinct path element names of paths
+	 */
+	public static String[] distinctNames(String[] paths) {
+		val res = new LinkedHashSet<String>();
+		for(val path : paths) {
+			for(val name : path.split("/")) {
+				if (! name.isEmpty()) {
+					res.add(name);
+				}
+			}
+		}
+		return res.toArray(new String[res.size()]);
+	}
+
+	public static NodeNamesPath[] encodePaths(NodeNameEncoder encoder, String[] paths) {
+		val res = new NodeNamesPath[paths.length];
+		for(int i = 0; i < paths.length; i++) {
+			res[i] = encoder.encodePath(paths[i]);
+		}
+		return res;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static String pick(Random rand, String[] values) {
+		return values[rand.nextInt(values.length)];
+	}
+
+	/** skewed pick, first values are more frequent, as in real trees */
+	private static int skewed(Random rand, int max) {
+		val r = rand.nextDouble();
+		return (int) (r * r * max);
+	}
+
+	private static String linuxPath(Random rand) {
+		val sb = new StringBuilder(100);
+		val top = pick(rand, LINUX_TOP);
+		sb.append('/').append(top);
+		if (top.equals("home")) {
+			sb.append("/user").append(skewed(rand, 100));
+		}
+		val depth = 1 + rand.nextInt(6);
+		for(int d = 0; d < depth; d++) {
+			sb.append('/').append(LINUX_DIRS[skewed(rand, LINUX_DIRS.length)]);
+			if (rand.nextInt(4) == 0) {
+				sb.append('-').append(skewed(rand, 20));
+			}
+		}
+		sb.append('/');
+		if (rand.nextInt(3) == 0) {
+			sb.append("lib");
+		}
+		sb.append("file").append(skewed(rand, 5000)).append(pick(rand, LINUX_EXTS));
+		return sb.toString();
+	}
+
+	private static String mavenPath(Random rand) {
+		val group = MAVEN_GROUPS[skewed(rand, MAVEN_GROUPS.length)];
+		val artifact = pick(rand, MAVEN_ARTIFACT_WORDS) + ((rand.nextBoolean())? "-" + pick(rand, MAVEN_ARTIFACT_WORDS) : "");
+		val version = (1 + skewed(rand, 5)) + "." + skewed(rand, 20) + "." + skewed(rand, 10) + ((rand.nextInt(10) == 0)? "-SNAPSHOT" : "");
+		return "/home/user" + skewed(rand, 10) + "/.m2/repository/" + group + "/" + artifact + "/" + version 
+				+ "/" + artifact + "-" + version + pick(rand, MAVEN_FILE_EXTS);
+	}
+
+	private static String s3Key(Random rand) {
+		val day = 1 + rand.nextInt(28);
+		val month = 1 + rand.nextInt(12);
+		return "tenant-" + skewed(rand, 500)
+				+ "/" + (2018 + rand.nextInt(6))
+				+ "/" + ((month < 10)? "0" : "") + month
+				+ "/" + ((day < 10)? "0" : "") + day
+				+ "/" + pick(rand, S3_DATASETS)
+				+ "/part-" + String.format("%05d", rand.nextInt(200)) + "-" + Long.toHexString(rand.nextLong()) + ".parquet";
+	}
+
+}
@@ -0,0 +1,232 @@
+package org.path4j;
+
+import lombok.val;
+
+/**
+ * (immutable) value-object path, represented as a persistent linked list: parent path + last name.
+ *
+ * toChild() and toParent() are O(1), subPath() walks up without allocation,
+ * and all paths of a sub-tree share their common prefix instances.
+ * hashCode is computed at creation, same as NodeNamesPath.hashCode() for same elements.
+ *
+ * see LinkedNodeNamesPathTable for canonical instances, where equal paths are the same instance
+ */
+public final class LinkedNodeNamesPath {
+
+	public static final LinkedNodeNamesPath ROOT = new LinkedNodeNamesPath();
+
+	private static final int HASH_PRIME = 31;
+
+	/** null for ROOT */
+	private final LinkedNodeNamesPath parent;
+
+	/** last name, null for ROOT */
+	private final NodeName name;
+
+	private final int depth;
+
+	/** same as Arrays.hashCode() of path elements */
+	private final int hashCode;
+
+	// ------------------------------------------------------------------------
+
+	private LinkedNodeNamesPath() {
+		this.parent = null;
+		this.name = null;
+		this.depth = 0;
+		this.hashCode = 1;
+	}
+
+	/*pp*/ LinkedNodeNamesPath(LinkedNodeNamesPath parent, NodeName name) {
+		this.parent = parent;
+		this.name = name;
+		this.depth = parent.depth + 1;
+		this.hashCode = HASH_PRIME * parent.hashCode + name.hashCode();
+	}
+
+	public static LinkedNodeNamesPath of(NodeName... pathElements) {
+		LinkedNodeNamesPath res = ROOT;
+		for(val name : pathElements) {
+			res = new LinkedNodeNamesPath(res, name);
+		}
+		return res;
+	}
+
+	public static LinkedNodeNamesPath of(NodeNamesPath path) {
+		LinkedNodeNamesPath res = ROOT;
+		val len = path.size();
+		for(int i = 0; i < len; i++) {
+			res = new LinkedNodeNamesPath(res, path.get(i));
+		}
+		return res;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public LinkedNodeNamesPath toChild(NodeName childName) {
+		return new LinkedNodeNamesPath(this, childName);
+	}
+
+	/**
+	 * @return parent, or ROOT for ROOT
+	 */
+	public LinkedNodeNamesPath toParent() {
+		return (parent != null)? parent : this;
+	}
+
+	/**
+	 * @return ancestor (or self) with len elements
+	 */
+	public LinkedNodeNamesPath subPath(int len) {
+		if (len < 0 || len > depth) {
+			throw new IndexOutOfBoundsException("len: " + len + ", size: " + depth);
+		}
+		LinkedNodeNamesPath res = this;
+		for(int i = depth; i > len; i--) {
+			res = res.parent;
+		}
+		return res;
+	}
+
+	/**
+	 * @param start len to prune
+	 * @return pruned path, example "a/b/c"  pruneStartPath(1) -> "b/c"
+	 * creates (depth - start) new instances, as the prefix changes
+	 */
+	public LinkedNodeNamesPath pruneStartPath(int start) {
+		val names = new NodeName[depth - start];
+		LinkedNodeNamesPath p = this;
+		for(int i = names.length - 1; i >= 0; i--) {
+			names[i] = p.name;
+			p = p.parent;
+		}
+		return of(names);
+	}
+
+	public boolean startsWith(NodeName firstName) {
+		if (depth < 1) {
+			return false;
+		}
+		return subPath(1).name.equals(firstName);
+	}
+
+	/**
+	 * @return true if prefix elements are the first elements of this path
+	 */
+	public boolean startsWith(LinkedNodeNamesPath prefix) {
+		if (prefix.depth > depth) {
+			return false;
+		}
+		return subPath(prefix.depth).equals(prefix);
+	}
+
+	public static LinkedNodeNamesPath commonPathOf(LinkedNodeNamesPath left, LinkedNodeNamesPath right) {
+		val len = Math.min(left.depth, right.depth);
+		LinkedNodeNamesPath l = left.subPath(len);
+		LinkedNodeNamesPath r = right.subPath(len);
+		// walk up both sides until equal, keeping last equal candidate from the root side
+		LinkedNodeNamesPath res = l;
+		while(l != r && l.depth > 0) {
+			if (! l.name.equals(r.name)) {
+				res = l.parent;
+			}
+			l = l.parent;
+			r = r.parent;
+		}
+		return res;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public int size() {
+		return depth;
+	}
+
+	/**
+	 * @return name at index i, walking up (depth - i) parents
+	 */
+	public NodeName get(int i) {
+		return subPath(i + 1).name;
+	}
+
+	public LinkedNodeNamesPath getParent() {
+		return parent;
+	}
+
+	public NodeName last() {
+		if (depth == 0) {
+			throw new IndexOutOfBoundsException("ROOT has no last element");
+		}
+		return name;
+	}
+
+	public NodeName lastOrEmpty() {
+		return (depth != 0)? name : NodeName.EMPTY;
+	}
+
+	public NodeName[] toNodeNames() {
+		val res = new NodeName[depth];
+		LinkedNodeNamesPath p = this;
+		for(int i = depth - 1; i >= 0; i--) {
+			res[i] = p.name;
+			p = p.parent;
+		}
+		return res;
+	}
+
+	public NodeNamesPath toNodeNamesPath() {
+		return NodeNamesPath.wrap(toNodeNames());
+	}
+
+	public String toPathSlash() {
+		val names = toNodeNames();
+		val sb = new StringBuilder(50 + 20 * depth);
+		for(int i = 0; i < names.length; i++) {
+			names[i].appendTo(sb);
+			if (i + 1 < names.length) {
+				sb.append('/');
+			}
+		}
+		return sb.toString();
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	/**
+	 * compares names walking up, until reaching a shared parent instance: 
+	 * O(1) for canonical paths, or paths sharing their parent
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		LinkedNodeNamesPath l = this;
+		LinkedNodeNamesPath r = (LinkedNodeNamesPath) obj;
+		if (l.depth != r.depth || l.hashCode != r.hashCode) {
+			return false;
+		}
+		while(l != r) {
+			if (! l.name.equals(r.name)) {
+				return false;
+			}
+			l = l.parent;
+			r = r.parent;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return toPathSlash();
+	}
+
+}
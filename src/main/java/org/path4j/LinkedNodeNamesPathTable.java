@@ -0,0 +1,82 @@
+package org.path4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.val;
+
+/**
+ * concurrent table of canonical LinkedNodeNamesPath: equal paths obtained from this table are the same instance,
+ * so equals() is a reference comparison, and each distinct path is stored once.
+ *
+ * entries are never removed, the table grows with the count of distinct paths (and their prefixes)
+ */
+public class LinkedNodeNamesPathTable {
+
+	/** canonical child paths, keyed by themselves: equals() on canonical parents compares only last names */
+	private final ConcurrentHashMap<LinkedNodeNamesPath,LinkedNodeNamesPath> canonicals;
+
+	// ------------------------------------------------------------------------
+
+	public LinkedNodeNamesPathTable() {
+		this.canonicals = new ConcurrentHashMap<>();
+	}
+
+	public LinkedNodeNamesPathTable(int initialCapacity) {
+		this.canonicals = new ConcurrentHashMap<>(initialCapacity);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @param canonicalParent ROOT, or a path obtained from this table
+	 * @return canonical child path
+	 */
+	public LinkedNodeNamesPath toChild(LinkedNodeNamesPath canonicalParent, NodeName childName) {
+		val candidate = new LinkedNodeNamesPath(canonicalParent, childName);
+		// lookup first, avoid locking a bin when already present
+		val found = canonicals.get(candidate);
+		if (found != null) {
+			return found;
+		}
+		val prev = canonicals.putIfAbsent(candidate, candidate);
+		return (prev != null)? prev : candidate;
+	}
+
+	/**
+	 * @return canonical path equal to path, with canonical parents
+	 */
+	public LinkedNodeNamesPath canonicalize(LinkedNodeNamesPath path) {
+		if (path.size() == 0) {
+			return LinkedNodeNamesPath.ROOT;
+		}
+		val found = canonicals.get(path);
+		if (found != null) {
+			return found;
+		}
+		return toChild(canonicalize(path.getParent()), path.last());
+	}
+
+	public LinkedNodeNamesPath canonicalize(NodeNamesPath path) {
+		LinkedNodeNamesPath res = LinkedNodeNamesPath.ROOT;
+		val len = path.size();
+		for(int i = 0; i < len; i++) {
+			res = toChild(res, path.get(i));
+		}
+		return res;
+	}
+
+	/**
+	 * encode a "/" separated path, with same normalization as NodeNameEncoder.encodePath()
+	 */
+	public LinkedNodeNamesPath encodePath(NodeNameEncoder encoder, String path) {
+		return canonicalize(encoder.encodePath(path));
+	}
+
+	/**
+	 * @return count of distinct non-root paths
+	 */
+	public int size() {
+		return canonicals.size();
+	}
+
+}
@@ -3,10 +3,22 @@ package org.path4j;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.path4j.impl.StringNodeName;
 
-public abstract class NodeName implements Comparable<NodeName> {
+import lombok.val;
+
+/**
+ * base class for encoded names.
+ * 
+ * all encodings give access to chars with length() and charAt(), 
+ * so that equals(), hashCode() and compareTo() do not need toText() allocations,
+ * and work across encodings of the same text
+ */
+public abstract class NodeName implements CharSequence, Comparable<NodeName> {
 
     public static final NodeName EMPTY = new StringNodeName("");
 
@@ -14,14 +26,35 @@ public abstract class NodeName implements Comparable<NodeName> {
     
 	public abstract String toText();
 
+	@Override
+	public abstract int length();
+
+	/**
+	 * should be O(1), see isRandomAccess()
+	 */
+	@Override
+	public abstract char charAt(int index);
+
+	/**
+	 * @return false when charAt(index) is O(index), for example decoding variable-length bytes from start.
+	 * equals() and compareTo() then never call charAt() in a loop on such names:
+	 * they iterate chars sequentially, with firstCharPos() / charAtPos() / nextCharPos()
+	 */
+	public boolean isRandomAccess() {
+		return true;
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toText().subSequence(start, end);
+	}
+
 	public void appendTo(StringBuilder sb) {
-		String text = toText();
-		sb.append(text);
+		sb.append(this);
 	}
 
 	public void appendTo(PrintStream out) {
-		String text = toText();
-		out.append(text);
+		out.append(this);
 	}
 
 	public void writeUTF(DataOutputStream out) throws IOException {
@@ -29,13 +62,230 @@ public abstract class NodeName implements Comparable<NodeName> {
 		out.writeUTF(text);
 	}
 
+	/**
+	 * @return count of bytes written by writeUTF() and writeTo(): 2 bytes length + "modified UTF-8" bytes
+	 */
+	public int utfSize() {
+		int res = 2;
+		val len = length();
+		for(int i = 0; i < len; i++) {
+			val c = charAt(i);
+			res += ((c >= 0x0001) && (c <= 0x007F))? 1 : (c > 0x07FF)? 3 : 2;
+		}
+		return res;
+	}
+
+	/**
+	 * same bytes as writeUTF(), put at position of buffer (whatever its byte order)
+	 * sub-classes override it with bulk putLong()/putInt()
+	 * 
+	 * @throws BufferOverflowException if remaining bytes of buffer are less than utfSize()
+	 * @throws IllegalArgumentException if "modified UTF-8" length is more than 65535
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		val utfLen = utfSize() - 2;
+		if (utfLen > 0xFFFF) {
+			throw new IllegalArgumentException("encoded name too long: " + utfLen + " bytes");
+		}
+		checkRemaining(buffer, 2 + utfLen);
+		putUTFLen(buffer, utfLen);
+		val len = length();
+		for(int i = 0; i < len; i++) {
+			val c = charAt(i);
+			if ((c >= 0x0001) && (c <= 0x007F)) {
+				buffer.put((byte) c);
+			} else if (c > 0x07FF) {
+				buffer.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+				buffer.put((byte) (0x80 | ((c >>  6) & 0x3F)));
+				buffer.put((byte) (0x80 | ((c >>  0) & 0x3F)));
+			} else {
+				buffer.put((byte) (0xC0 | ((c >>  6) & 0x1F)));
+				buffer.put((byte) (0x80 | ((c >>  0) & 0x3F)));
+			}
+		}
+	}
+
+	/**
+	 * same bytes as writeUTF(), written in buf at offset
+	 * @return offset after written bytes
+	 */
+	public int writeTo(byte[] buf, int offset) {
+		val buffer = ByteBuffer.wrap(buf, offset, buf.length - offset);
+		writeTo(buffer);
+		return buffer.position();
+	}
+
+	/**
+	 * check before writing, so that nothing is written when buffer is too small
+	 */
+	protected static void checkRemaining(ByteBuffer buffer, int size) {
+		if (buffer.remaining() < size) {
+			throw new BufferOverflowException();
+		}
+	}
+
+	/**
+	 * put "modified UTF-8" length, as 2 bytes big-endian
+	 */
+	protected static void putUTFLen(ByteBuffer buffer, int utfLen) {
+		buffer.put((byte) (utfLen >>> 8));
+		buffer.put((byte) utfLen);
+	}
+
+	/**
+	 * put 8 bytes, first byte in highest bits of value, whatever byte order of buffer
+	 */
+	protected static void putBigEndianLong(ByteBuffer buffer, long value) {
+		buffer.putLong((buffer.order() == ByteOrder.BIG_ENDIAN)? value : Long.reverseBytes(value));
+	}
+
+	/**
+	 * put 4 bytes, first byte in highest bits of value, whatever byte order of buffer
+	 */
+	protected static void putBigEndianInt(ByteBuffer buffer, int value) {
+		buffer.putInt((buffer.order() == ByteOrder.BIG_ENDIAN)? value : Integer.reverseBytes(value));
+	}
+
 	// ------------------------------------------------------------------------
 
+	/**
+	 * @return true if same chars as other, whatever encoding
+	 */
+	public boolean contentEquals(CharSequence other) {
+		val len = length();
+		if (len != other.length()) {
+			return false;
+		}
+		if (other instanceof NodeName) {
+			return contentEquals((NodeName) other, len);
+		}
+		if (isRandomAccess()) {
+			for(int i = 0; i < len; i++) {
+				if (charAt(i) != other.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		int pos = firstCharPos();
+		for(int i = 0; i < len; i++) {
+			if (charAtPos(pos) != other.charAt(i)) {
+				return false;
+			}
+			pos = nextCharPos(pos);
+		}
+		return true;
+	}
+
+	private boolean contentEquals(NodeName other, int len) {
+		if (isRandomAccess() && other.isRandomAccess()) {
+			for(int i = 0; i < len; i++) {
+				if (charAt(i) != other.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		int pos = firstCharPos();
+		int otherPos = other.firstCharPos();
+		for(int i = 0; i < len; i++) {
+			if (charAtPos(pos) != other.charAtPos(otherPos)) {
+				return false;
+			}
+			pos = nextCharPos(pos);
+			otherPos = other.nextCharPos(otherPos);
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if same chars as range [offset, offset+length) of source, whatever encoding
+	 */
+	public boolean contentEquals(CharSequence source, int offset, int length) {
+		if (length() != length) {
+			return false;
+		}
+		int pos = firstCharPos();
+		if (source instanceof NodeName && ! ((NodeName) source).isRandomAccess()) {
+			val other = (NodeName) source;
+			int otherPos = other.firstCharPos();
+			for(int i = 0; i < offset; i++) {
+				otherPos = other.nextCharPos(otherPos);
+			}
+			for(int i = 0; i < length; i++) {
+				if (charAtPos(pos) != other.charAtPos(otherPos)) {
+					return false;
+				}
+				pos = nextCharPos(pos);
+				otherPos = other.nextCharPos(otherPos);
+			}
+			return true;
+		}
+		for(int i = 0; i < length; i++) {
+			if (charAtPos(pos) != source.charAt(offset + i)) {
+				return false;
+			}
+			pos = nextCharPos(pos);
+		}
+		return true;
+	}
+
+	/**
+	 * same as toText().compareTo(other.toText())
+	 */
 	@Override
 	public int compareTo(NodeName other) {
-		String text = toText();
-		String otherText = other.toText();
-		return text.compareTo(otherText);
+		val len = length();
+		val otherLen = other.length();
+		val minLen = Math.min(len, otherLen);
+		if (isRandomAccess() && other.isRandomAccess()) {
+			for(int i = 0; i < minLen; i++) {
+				char ch = charAt(i);
+				char otherCh = other.charAt(i);
+				if (ch != otherCh) {
+					return ch - otherCh;
+				}
+			}
+			return len - otherLen;
+		}
+		int pos = firstCharPos();
+		int otherPos = other.firstCharPos();
+		for(int i = 0; i < minLen; i++) {
+			char ch = charAtPos(pos);
+			char otherCh = other.charAtPos(otherPos);
+			if (ch != otherCh) {
+				return ch - otherCh;
+			}
+			pos = nextCharPos(pos);
+			otherPos = other.nextCharPos(otherPos);
+		}
+		return len - otherLen;
+	}
+
+	// sequential char access, without allocation
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return position of first char, for iterating chars with charAtPos() and nextCharPos().
+	 * positions are opaque to callers: char index by default, 
+	 * overridden by names without random access (byte offset of "modified UTF-8" encoded char)
+	 */
+	protected int firstCharPos() {
+		return 0;
+	}
+
+	/**
+	 * @return char at position, see firstCharPos()
+	 */
+	protected char charAtPos(int pos) {
+		return charAt(pos);
+	}
+
+	/**
+	 * @return position of char following the char at pos, see firstCharPos()
+	 */
+	protected int nextCharPos(int pos) {
+		return pos + 1;
 	}
 
 	@Override
@@ -43,21 +293,27 @@ public abstract class NodeName implements Comparable<NodeName> {
 		return toText();
 	}
 
+	/**
+	 * same as toText().hashCode()
+	 */
 	@Override
 	public int hashCode() {
-		return toText().hashCode();
+		int h = 0;
+		val len = length();
+		for(int i = 0; i < len; i++) {
+			h = 31 * h + charAt(i);
+		}
+		return h;
 	}
 	
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
+		if (!(obj instanceof NodeName))
 			return false;
 		NodeName other = (NodeName) obj;
-		return toText().equals(other.toText());
+		return contentEquals(other);
 	}
 
 }
@@ -1,16 +1,63 @@
 package org.path4j;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import lombok.val;
 
 public abstract class NodeNameEncoder {
 
-	public abstract NodeName encode(String name);	
+	public abstract NodeName encode(String name);
+
+	/**
+	 * encode name in range [offset, offset+length) of source
+	 * default implementation extracts name using subSequence(), sub-classes may override to avoid it
+	 */
+	public NodeName encode(CharSequence source, int offset, int length) {
+		return encode(source.subSequence(offset, offset + length).toString());
+	}
+
+	/**
+	 * encode name in range [offset, offset+length) of source
+	 * default implementation copies name to a String, sub-classes may override to avoid it
+	 */
+	public NodeName encode(char[] source, int offset, int length) {
+		return encode(new String(source, offset, length));
+	}
+
+	/**
+	 * encode name in range [offset, offset+length) of UTF-8 encoded bytes
+	 * default implementation decodes name to a String, sub-classes may override to avoid it
+	 */
+	public NodeName encode(byte[] utf8, int offset, int length) {
+		return encode(new String(utf8, offset, length, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * encode name of a path element, in range [offset, offset+length) of source
+	 *
+	 * may override to decide to internalize name where path level < threshold..
+	 */
+	public NodeName encodePathElement(CharSequence source, int offset, int length, int pathLevel) {
+		return encode(source, offset, length);
+	}
+
+	/**
+	 * encode name of a path element, in range [offset, offset+length) of UTF-8 encoded bytes
+	 * default implementation decodes name to a String, sub-classes may override to avoid it
+	 */
+	public NodeName encodePathElement(byte[] utf8, int offset, int length, int pathLevel) {
+		val name = new String(utf8, offset, length, StandardCharsets.UTF_8);
+		return encodePathElement(name, 0, name.length(), pathLevel);
+	}
 
 	/**
 	 * encode several names from a path
-	 *  
-	 * may override to decide to internalize name where path level < threshold.. 
-	 */ 
+	 *
+	 * may override to decide to internalize name where path level < threshold..
+	 */
 	public NodeName[] encodePathNodeNames(String[] pathElts) {
 		val pathCount = pathElts.length;
 		val res = new NodeName[pathCount];
@@ -20,16 +67,153 @@ public abstract class NodeNameEncoder {
 		return res;
 	}
 
+	/**
+	 * encode a "/" separated path, scanning it once, without temporary String per path element.
+	 *
+	 * path is normalized: leading and trailing "/", empty elements ("//") and "." are ignored,
+	 * ".." removes the previous element (or is ignored at root)
+	 */
 	public NodeNamesPath encodePath(String path) {
-	    if (path == null || path.equals("") || path.equals("/")) {
-	        return NodeNamesPath.ROOT; 
-	    }
-		// remove first "/" if any
-		if (path.startsWith("/")) {
-			path = path.substring(1);
-		}
-		val pathElts = path.split("/");
-		return encodePath(pathElts);
+		return encodePath(path, NodeNamesPath.ROOT);
+	}
+
+	/**
+	 * encode a "/" separated path, reusing the NodeName instances of prevPath for the common prefix:
+	 * leading elements equal to those of prevPath (compared with contentEquals()) are not encoded again.
+	 * 
+	 * returns prevPath itself when equal, or prevPath.toChild() when prevPath is the parent (deriving hashCode in O(1)).
+	 * same normalization as encodePath(String)
+	 * 
+	 * @param prevPath previously encoded path, or null (same as ROOT: no element reused)
+	 */
+	public NodeNamesPath encodePath(String path, NodeNamesPath prevPath) {
+		if (path == null) {
+			return NodeNamesPath.ROOT;
+		}
+		if (prevPath == null) {
+			prevPath = NodeNamesPath.ROOT;
+		}
+		val len = path.length();
+		val prevLen = prevPath.size();
+		NodeName[] res = null;
+		int count = 0;
+		// true while res[0, count) are the elements of prevPath
+		boolean prefixMatch = true;
+		int start = 0;
+		while(start < len) {
+			int end = path.indexOf('/', start);
+			if (end == -1) {
+				end = len;
+			}
+			val eltLen = end - start;
+			if (eltLen == 0 || (eltLen == 1 && path.charAt(start) == '.')) {
+				// ignore "//" and "."
+			} else if (eltLen == 2 && path.charAt(start) == '.' && path.charAt(start + 1) == '.') {
+				if (count > 0) {
+					count--;
+					res[count] = null;
+				}
+			} else {
+				if (res == null) {
+					res = new NodeName[Math.max(8, prevLen + 1)];
+				} else if (count == res.length) {
+					res = Arrays.copyOf(res, count * 2);
+				}
+				if (prefixMatch && count < prevLen && prevPath.get(count).contentEquals(path, start, eltLen)) {
+					res[count] = prevPath.get(count);
+				} else {
+					prefixMatch = false;
+					res[count] = encodePathElement(path, start, eltLen, count);
+				}
+				count++;
+			}
+			start = end + 1;
+		}
+		if (count == 0) {
+			return NodeNamesPath.ROOT;
+		}
+		if (prefixMatch && count == prevLen) {
+			return prevPath;
+		}
+		if (prefixMatch && count == prevLen + 1) {
+			return prevPath.toChild(res[prevLen]);
+		}
+		if (count != res.length) {
+			res = Arrays.copyOf(res, count);
+		}
+		return NodeNamesPath.wrap(res);
+	}
+
+	/**
+	 * encode paths, reusing the encoded prefix of the previous path: efficient for sorted paths (as from directory walks)
+	 * see encodePath(String, NodeNamesPath)
+	 */
+	public List<NodeNamesPath> encodePaths(Iterable<String> paths) {
+		val res = new ArrayList<NodeNamesPath>();
+		NodeNamesPath prev = NodeNamesPath.ROOT;
+		for(val path : paths) {
+			prev = encodePath(path, prev);
+			res.add(prev);
+		}
+		return res;
+	}
+
+	/**
+	 * same as encodePaths(Iterable), for an array
+	 */
+	public NodeNamesPath[] encodePaths(String[] paths) {
+		val count = paths.length;
+		val res = new NodeNamesPath[count];
+		NodeNamesPath prev = NodeNamesPath.ROOT;
+		for(int i = 0; i < count; i++) {
+			prev = encodePath(paths[i], prev);
+			res[i] = prev;
+		}
+		return res;
+	}
+
+	/**
+	 * encode a "/" separated path, from UTF-8 encoded bytes in range [offset, offset+length)
+	 * 
+	 * same normalization as encodePath(String). 
+	 * byte '/' never occurs inside multi-bytes UTF-8 chars, so path elements are split without decoding
+	 */
+	public NodeNamesPath encodePath(byte[] utf8, int offset, int length) {
+		val pathEnd = offset + length;
+		NodeName[] res = null;
+		int count = 0;
+		int start = offset;
+		while(start < pathEnd) {
+			int end = start;
+			while(end < pathEnd && utf8[end] != '/') {
+				end++;
+			}
+			val eltLen = end - start;
+			if (eltLen == 0 || (eltLen == 1 && utf8[start] == '.')) {
+				// ignore "//" and "."
+			} else if (eltLen == 2 && utf8[start] == '.' && utf8[start + 1] == '.') {
+				if (count > 0) {
+					count--;
+					res[count] = null;
+				}
+			} else {
+				if (res == null) {
+					res = new NodeName[8];
+				} else if (count == res.length) {
+					res = Arrays.copyOf(res, count * 2);
+				}
+				res[count] = encodePathElement(utf8, start, eltLen, count);
+				count++;
+			}
+			start = end + 1;
+		}
+		if (count == 0) {
+			return NodeNamesPath.ROOT;
+		}
+		if (count != res.length) {
+			res = Arrays.copyOf(res, count);
+		}
+		return NodeNamesPath.wrap(res);
 	}
 
 	public NodeNamesPath encodePath(String[] pathElts) {
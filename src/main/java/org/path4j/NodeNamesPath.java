@@ -12,9 +12,18 @@ public final class NodeNamesPath {
 
 	public static final NodeNamesPath ROOT = new NodeNamesPath(new NodeName[0]);
 
+	private static final int HASH_PRIME = 31;
+
+	/** multiplicative inverse of HASH_PRIME modulo 2^32, for removing last element from hashCode */
+	private static final int HASH_PRIME_INVERSE = 0xbdef7bdf;
+
 	private final NodeName[] pathElements;
 
-	// private int hashCode;
+	/**
+	 * cached hashCode, same as Arrays.hashCode(pathElements), or 0 if not computed yet
+	 * (racy single-check: recomputing it from another thread gives the same value)
+	 */
+	private int hashCode;
 
 	// ------------------------------------------------------------------------
 
@@ -23,6 +32,19 @@ public final class NodeNamesPath {
 		this.pathElements = pathElements;
 	}
 
+	private NodeNamesPath(NodeName[] pathElements, int hashCode) {
+		this.pathElements = pathElements;
+		this.hashCode = hashCode;
+	}
+
+	/** 
+	 * internal, for NodeNameEncoder: wrap pathElements array without copy 
+	 * caller must not modify array afterwards
+	 */
+	/*pp*/ static NodeNamesPath wrap(NodeName[] pathElements) {
+		return new NodeNamesPath(pathElements);
+	}
+
 	public static NodeNamesPath of(NodeName... pathElements) {
 		// private copy for ensuring immutability
 		val len = pathElements.length;
@@ -36,7 +58,10 @@ public final class NodeNamesPath {
 		val res = new NodeName[len + 1];
 		System.arraycopy(pathElements, 0, res, 0, len);
 		res[len] = childName;
-		return new NodeNamesPath(res);
+		// derive child hashCode in O(1) when already computed
+		val h = hashCode;
+		val childHash = (h != 0)? HASH_PRIME * h + childName.hashCode() : 0;
+		return new NodeNamesPath(res, childHash);
 	}
 
 	public boolean startsWith(NodeName name) {
@@ -71,7 +96,10 @@ public final class NodeNamesPath {
 		}
 		val res = new NodeName[len - 1];
 		System.arraycopy(pathElements, 0, res, 0, len - 1);
-		return new NodeNamesPath(res);
+		// derive parent hashCode in O(1) when already computed: h = HASH_PRIME * parentHash + last.hashCode()
+		val h = hashCode;
+		val parentHash = (h != 0)? (h - pathElements[len - 1].hashCode()) * HASH_PRIME_INVERSE : 0;
+		return new NodeNamesPath(res, parentHash);
 	}
 
 	public static NodeNamesPath commonPathOf(NodeNamesPath left, NodeNamesPath  right) {
@@ -90,7 +118,7 @@ public final class NodeNamesPath {
 	// ------------------------------------------------------------------------
 
 	public int size() {
-		return size();
+		return pathElements.length;
 	}
 
 	public NodeName get(int i) {
@@ -131,10 +159,12 @@ public final class NodeNamesPath {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Arrays.hashCode(pathElements);
-		return result;
+		int h = hashCode;
+		if (h == 0) {
+			h = Arrays.hashCode(pathElements);
+			hashCode = h;
+		}
+		return h;
 	}
 
 	@Override
@@ -146,6 +176,11 @@ public final class NodeNamesPath {
 		if (getClass() != obj.getClass())
 			return false;
 		NodeNamesPath other = (NodeNamesPath) obj;
+		val h = hashCode;
+		val otherH = other.hashCode;
+		if (h != 0 && otherH != 0 && h != otherH) {
+			return false;
+		}
 		return Arrays.equals(pathElements, other.pathElements);
 	}
 
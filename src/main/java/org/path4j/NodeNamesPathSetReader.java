@@ -0,0 +1,200 @@
+package org.path4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.val;
+
+/**
+ * reader of a set of paths written by NodeNamesPathSetWriter, in sorted order.
+ *
+ * the name dictionary is decoded once at opening, using NodeNameEncoder.encode(byte[]..) for ascii names
+ * (same bytes in UTF-8 and "modified UTF-8"), or NodeNameEncoder.encode(char[]..) after decoding other ones,
+ * so that the encoder chooses the most compact encoding (ByteN/CharN structs, long-packed..) of each name.
+ * Paths are then rebuilt from the dictionary names and the shared prefix of previous path: 
+ * no String nor byte[] copy per path, and no copy of name bytes from a heap ByteBuffer.
+ */
+public class NodeNamesPathSetReader {
+
+	private final ByteBuffer buffer;
+
+	private final NodeName[] names;
+
+	private final int pathCount;
+
+	private int readCount;
+
+	private NodeName[] prevElements = new NodeName[0];
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @param buffer positioned at start of path set, read using its position
+	 */
+	public NodeNamesPathSetReader(ByteBuffer buffer, NodeNameEncoder encoder) {
+		this.buffer = buffer;
+		val magic = buffer.getInt();
+		if (magic != NodeNamesPathSetWriter.MAGIC) {
+			throw new IllegalArgumentException("not a path set, bad magic: " + Integer.toHexString(magic));
+		}
+		val version = buffer.get();
+		if (version != NodeNamesPathSetWriter.VERSION) {
+			throw new IllegalArgumentException("unsupported path set version: " + version);
+		}
+		val nameCount = readVarInt();
+		this.names = new NodeName[nameCount];
+		byte[] scratch = null;
+		char[] chars = null;
+		for(int i = 0; i < nameCount; i++) {
+			val len = ((buffer.get() & 0xFF) << 8) | (buffer.get() & 0xFF);
+			val pos = buffer.position();
+			if (! isAscii(buffer, pos, len)) {
+				if (chars == null || chars.length < len) {
+					chars = new char[Math.max(len, 256)];
+				}
+				val charCount = decodeUTF(buffer, pos, len, chars);
+				names[i] = encoder.encode(chars, 0, charCount);
+				buffer.position(pos + len);
+			} else if (buffer.hasArray()) {
+				names[i] = encoder.encode(buffer.array(), buffer.arrayOffset() + pos, len);
+				buffer.position(pos + len);
+			} else {
+				if (scratch == null || scratch.length < len) {
+					scratch = new byte[Math.max(len, 256)];
+				}
+				buffer.get(scratch, 0, len);
+				names[i] = encoder.encode(scratch, 0, len);
+			}
+		}
+		this.pathCount = readVarInt();
+	}
+
+	/**
+	 * open path set file, memory mapped
+	 */
+	public static NodeNamesPathSetReader open(Path file, NodeNameEncoder encoder) throws IOException {
+		try (val channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			val mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new NodeNamesPathSetReader(mapped, encoder);
+		}
+	}
+
+	public static List<NodeNamesPath> readAll(byte[] data, NodeNameEncoder encoder) {
+		return new NodeNamesPathSetReader(ByteBuffer.wrap(data), encoder).readAll();
+	}
+
+	// ------------------------------------------------------------------------
+
+	public int getPathCount() {
+		return pathCount;
+	}
+
+	public int getNameCount() {
+		return names.length;
+	}
+
+	public NodeName getName(int id) {
+		return names[id];
+	}
+
+	public boolean hasNext() {
+		return readCount < pathCount;
+	}
+
+	/**
+	 * @return next path, sharing NodeName instances of previous path for its common prefix
+	 */
+	public NodeNamesPath next() {
+		if (readCount >= pathCount) {
+			throw new IllegalStateException("no more path, count: " + pathCount);
+		}
+		readCount++;
+		val shared = readVarInt();
+		val suffixCount = readVarInt();
+		if (shared > prevElements.length) {
+			throw new IllegalStateException("corrupted path set, shared depth: " + shared + " > previous path depth: " + prevElements.length);
+		}
+		val len = shared + suffixCount;
+		if (len == 0) {
+			prevElements = new NodeName[0];
+			return NodeNamesPath.ROOT;
+		}
+		val elements = new NodeName[len];
+		System.arraycopy(prevElements, 0, elements, 0, shared);
+		for(int i = shared; i < len; i++) {
+			elements[i] = names[readVarInt()];
+		}
+		prevElements = elements;
+		// elements is not modified afterwards, only copied
+		return NodeNamesPath.wrap(elements);
+	}
+
+	/**
+	 * @return remaining paths
+	 */
+	public List<NodeNamesPath> readAll() {
+		val res = new ArrayList<NodeNamesPath>(pathCount - readCount);
+		while(hasNext()) {
+			res.add(next());
+		}
+		return res;
+	}
+
+	/**
+	 * @return true if bytes are chars 01-7F, same in UTF-8 and "modified UTF-8"
+	 */
+	private static boolean isAscii(ByteBuffer src, int pos, int len) {
+		for(int i = pos; i < pos + len; i++) {
+			if (src.get(i) <= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * decode "modified UTF-8" bytes at absolute position, same as DataInput.readUTF()
+	 * @return count of chars decoded in dest
+	 */
+	private static int decodeUTF(ByteBuffer src, int pos, int len, char[] dest) {
+		val end = pos + len;
+		int count = 0;
+		int i = pos;
+		while(i < end) {
+			val b = src.get(i) & 0xFF;
+			if (b < 0x80) {
+				dest[count++] = (char) b;
+				i++;
+			} else if ((b & 0xE0) == 0xC0 && i + 1 < end) {
+				dest[count++] = (char) (((b & 0x1F) << 6) | (src.get(i + 1) & 0x3F));
+				i += 2;
+			} else if ((b & 0xF0) == 0xE0 && i + 2 < end) {
+				dest[count++] = (char) (((b & 0x0F) << 12) | ((src.get(i + 1) & 0x3F) << 6) | (src.get(i + 2) & 0x3F));
+				i += 3;
+			} else {
+				throw new IllegalStateException("corrupted path set, bad modified UTF-8 byte at: " + i);
+			}
+		}
+		return count;
+	}
+
+	private int readVarInt() {
+		int res = 0;
+		for(int shift = 0; ; shift += 7) {
+			val b = buffer.get();
+			res |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return res;
+			}
+			if (shift >= 28) {
+				throw new IllegalStateException("corrupted path set, varint too long");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,210 @@
+package org.path4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+import lombok.val;
+
+/**
+ * writer of a set of paths, in compact binary format read by NodeNamesPathSetReader.
+ *
+ * paths are sorted and front-coded: each path is written as the depth shared with the previous path,
+ * and the ids of its new suffix names. Names are written once, in a dictionary sorted by decreasing frequency,
+ * so that most frequent names get 1 byte varint ids.
+ * 
+ * format:
+ * <pre>
+ * int magic "P4JS", byte version
+ * varint nameCount, { unsigned short utfLength, "modified UTF-8" bytes } * nameCount
+ * varint pathCount, { varint sharedDepth, varint suffixCount, { varint nameId } * suffixCount } * pathCount
+ * </pre>
+ * names are written as "modified UTF-8", same bytes as DataOutput.writeUTF() and NodeName.writeTo(), 
+ * so that any char sequence is written as is, including unpaired surrogates.
+ * names longer than 65535 "modified UTF-8" bytes are rejected, with IllegalArgumentException
+ */
+public class NodeNamesPathSetWriter {
+
+	/*pp*/ static final int MAGIC = 0x50344A53; // "P4JS"
+	/*pp*/ static final byte VERSION = 2;
+
+	/** element-wise path order, using NodeName.compareTo() */
+	public static final Comparator<NodeNamesPath> PATH_COMPARATOR = (left, right) -> {
+		val leftLen = left.size();
+		val rightLen = right.size();
+		val minLen = Math.min(leftLen, rightLen);
+		for(int i = 0; i < minLen; i++) {
+			val cmp = left.get(i).compareTo(right.get(i));
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return leftLen - rightLen;
+	};
+
+	private static final int FLUSH_SIZE = 64 * 1024;
+
+	private final OutputStream out;
+	private byte[] buffer = new byte[FLUSH_SIZE + 1024];
+	private int pos;
+
+	// ------------------------------------------------------------------------
+
+	private NodeNamesPathSetWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * write sorted distinct paths (input collection is not modified)
+	 */
+	public static void write(OutputStream out, Collection<NodeNamesPath> paths) throws IOException {
+		val writer = new NodeNamesPathSetWriter(out);
+		writer.doWrite(paths);
+	}
+
+	public static byte[] toByteArray(Collection<NodeNamesPath> paths) {
+		val out = new ByteArrayOutputStream();
+		try {
+			write(out, paths);
+		} catch (IOException ex) {
+			throw new IllegalStateException("should not occur", ex);
+		}
+		return out.toByteArray();
+	}
+
+	private static class NameEntry {
+		final NodeName name;
+		int count;
+		int id;
+
+		NameEntry(NodeName name) {
+			this.name = name;
+		}
+	}
+
+	private void doWrite(Collection<NodeNamesPath> paths) throws IOException {
+		val sorted = new ArrayList<NodeNamesPath>(paths);
+		sorted.sort(PATH_COMPARATOR);
+
+		// 1st pass: distinct paths, shared depth with previous, and frequency of suffix names
+		val pathCount = sorted.size();
+		val distinctPaths = new ArrayList<NodeNamesPath>(pathCount);
+		val sharedDepths = new int[pathCount];
+		val entryByName = new HashMap<NodeName,NameEntry>();
+		NodeNamesPath prev = null;
+		for(val path : sorted) {
+			val shared = (prev != null)? sharedDepth(prev, path) : 0;
+			if (prev != null && shared == path.size() && shared == prev.size()) {
+				continue; // duplicate
+			}
+			sharedDepths[distinctPaths.size()] = shared;
+			distinctPaths.add(path);
+			val len = path.size();
+			for(int i = shared; i < len; i++) {
+				entryByName.computeIfAbsent(path.get(i), k -> new NameEntry(k)).count++;
+			}
+			prev = path;
+		}
+
+		// dictionary, most frequent first
+		val dictionary = new ArrayList<NameEntry>(entryByName.values());
+		dictionary.sort((left, right) -> (left.count != right.count)? Integer.compare(right.count, left.count) : left.name.compareTo(right.name));
+		val nameCount = dictionary.size();
+		for(int i = 0; i < nameCount; i++) {
+			dictionary.get(i).id = i;
+		}
+
+		writeInt(MAGIC);
+		writeByte(VERSION);
+		writeVarInt(nameCount);
+		for(val entry : dictionary) {
+			writeName(entry.name);
+		}
+
+		val distinctCount = distinctPaths.size();
+		writeVarInt(distinctCount);
+		for(int p = 0; p < distinctCount; p++) {
+			val path = distinctPaths.get(p);
+			val shared = sharedDepths[p];
+			val len = path.size();
+			writeVarInt(shared);
+			writeVarInt(len - shared);
+			for(int i = shared; i < len; i++) {
+				writeVarInt(entryByName.get(path.get(i)).id);
+			}
+		}
+		flush();
+	}
+
+	/*pp*/ static int sharedDepth(NodeNamesPath left, NodeNamesPath right) {
+		val minLen = Math.min(left.size(), right.size());
+		int i = 0;
+		while(i < minLen && left.get(i).equals(right.get(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	// buffered output
+	// ------------------------------------------------------------------------
+
+	private void ensureCapacity(int count) throws IOException {
+		if (pos + count > buffer.length) {
+			flush();
+			if (count > buffer.length) {
+				buffer = new byte[count];
+			}
+		}
+	}
+
+	private void flush() throws IOException {
+		out.write(buffer, 0, pos);
+		pos = 0;
+	}
+
+	private void writeByte(int b) throws IOException {
+		ensureCapacity(1);
+		buffer[pos++] = (byte) b;
+	}
+
+	private void writeInt(int value) throws IOException {
+		ensureCapacity(4);
+		buffer[pos++] = (byte) (value >>> 24);
+		buffer[pos++] = (byte) (value >>> 16);
+		buffer[pos++] = (byte) (value >>> 8);
+		buffer[pos++] = (byte) value;
+	}
+
+	/**
+	 * unsigned LEB128 varint: 7 bits per byte, high bit set when more bytes follow
+	 */
+	private void writeVarInt(int value) throws IOException {
+		ensureCapacity(5);
+		while((value & ~0x7F) != 0) {
+			buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[pos++] = (byte) value;
+	}
+
+	/**
+	 * write name as unsigned short length + "modified UTF-8" bytes, without String nor byte[] copy
+	 */
+	private void writeName(NodeName name) throws IOException {
+		val utfSize = name.utfSize();
+		if (utfSize - 2 > 0xFFFF) {
+			throw new IllegalArgumentException("name too long: " + (utfSize - 2) + " bytes, expecting <= 65535");
+		}
+		ensureCapacity(utfSize);
+		pos = name.writeTo(buffer, pos);
+		if (pos >= FLUSH_SIZE) {
+			flush();
+		}
+	}
+
+}
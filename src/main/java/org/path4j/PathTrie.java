@@ -0,0 +1,589 @@
+package org.path4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+import lombok.val;
+
+/**
+ * map of NodeNamesPath to values, stored as a trie of NodeName: common prefixes are stored once.
+ *
+ * children of a node are specialized by fan-out, to keep per-node overhead minimal:
+ * <ul>
+ * <li>no child: null</li>
+ * <li>1 child: the child node itself</li>
+ * <li>2 to 8 children: inline Node[], scanned linearly</li>
+ * <li>more: open-addressed hash table of nodes, with linear probing</li>
+ * </ul>
+ * 
+ * null values are not allowed. Not thread-safe.
+ */
+public class PathTrie<V> {
+
+	/** max count of children in inline array, before converting to hash table */
+	private static final int INLINE_MAX = 8;
+
+	/** converting back hash table to inline array, when count of children fall below (hysteresis) */
+	private static final int HASH_MIN = INLINE_MAX / 2;
+
+	private final Node root = new Node(null);
+
+	private int size;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * node of trie: header + 3 refs
+	 */
+	private static final class Node {
+		final NodeName name;
+		Object value;
+		/** null, Node, Node[] or HashChildren */
+		Object children;
+
+		Node(NodeName name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * open-addressed table of children nodes, for large directories
+	 */
+	private static final class HashChildren {
+		Node[] table;
+		int size;
+
+		HashChildren(int capacity) {
+			this.table = new Node[capacity];
+		}
+
+		private static int indexFor(NodeName name, int mask) {
+			int h = name.hashCode();
+			h ^= (h >>> 16); // spread high bits, as in HashMap
+			return h & mask;
+		}
+
+		Node get(NodeName name) {
+			val tab = table;
+			val mask = tab.length - 1;
+			for(int i = indexFor(name, mask); ; i = (i + 1) & mask) {
+				val node = tab[i];
+				if (node == null) {
+					return null;
+				}
+				if (node.name.equals(name)) {
+					return node;
+				}
+			}
+		}
+
+		/** name must not be present */
+		void add(Node child) {
+			if (4 * (size + 1) > 3 * table.length) {
+				val oldTable = table;
+				table = new Node[oldTable.length * 2];
+				for(val node : oldTable) {
+					if (node != null) {
+						insert(node);
+					}
+				}
+			}
+			insert(child);
+			size++;
+		}
+
+		private void insert(Node child) {
+			val tab = table;
+			val mask = tab.length - 1;
+			int i = indexFor(child.name, mask);
+			while(tab[i] != null) {
+				i = (i + 1) & mask;
+			}
+			tab[i] = child;
+		}
+
+		/**
+		 * remove, using backward-shift deletion (no tombstones)
+		 */
+		void remove(Node child) {
+			val tab = table;
+			val mask = tab.length - 1;
+			int i = indexFor(child.name, mask);
+			while(tab[i] != child) {
+				i = (i + 1) & mask;
+			}
+			size--;
+			for(int j = (i + 1) & mask; tab[j] != null; j = (j + 1) & mask) {
+				val home = indexFor(tab[j].name, mask);
+				// move tab[j] into hole i, unless its home slot lies cyclically in (i, j]
+				if (((j - home) & mask) >= ((j - i) & mask)) {
+					tab[i] = tab[j];
+					i = j;
+				}
+			}
+			tab[i] = null;
+		}
+	}
+
+	// internal children helpers
+	// ------------------------------------------------------------------------
+
+	private static Node childOf(Node node, NodeName name) {
+		val children = node.children;
+		if (children == null) {
+			return null;
+		} else if (children instanceof Node) {
+			val child = (Node) children;
+			return (child.name.equals(name))? child : null;
+		} else if (children instanceof Node[]) {
+			for(val child : (Node[]) children) {
+				if (child == null) {
+					break;
+				}
+				if (child.name.equals(name)) {
+					return child;
+				}
+			}
+			return null;
+		} else {
+			return ((HashChildren) children).get(name);
+		}
+	}
+
+	private static Node getOrAddChild(Node node, NodeName name) {
+		val found = childOf(node, name);
+		if (found != null) {
+			return found;
+		}
+		val child = new Node(name);
+		val children = node.children;
+		if (children == null) {
+			node.children = child;
+		} else if (children instanceof Node) {
+			node.children = new Node[] { (Node) children, child };
+		} else if (children instanceof Node[]) {
+			val array = (Node[]) children;
+			val count = inlineCount(array);
+			if (count < array.length) {
+				array[count] = child;
+			} else if (count < INLINE_MAX) {
+				val grow = new Node[Math.min(INLINE_MAX, 2 * count)];
+				System.arraycopy(array, 0, grow, 0, count);
+				grow[count] = child;
+				node.children = grow;
+			} else {
+				val hash = new HashChildren(4 * INLINE_MAX);
+				for(val e : array) {
+					hash.add(e);
+				}
+				hash.add(child);
+				node.children = hash;
+			}
+		} else {
+			((HashChildren) children).add(child);
+		}
+		return child;
+	}
+
+	private static void removeChild(Node node, Node child) {
+		val children = node.children;
+		if (children instanceof Node) {
+			node.children = null;
+		} else if (children instanceof Node[]) {
+			val array = (Node[]) children;
+			val count = inlineCount(array);
+			if (count == 2) {
+				node.children = (array[0] == child)? array[1] : array[0];
+				return;
+			}
+			int i = 0;
+			while(array[i] != child) {
+				i++;
+			}
+			System.arraycopy(array, i + 1, array, i, count - i - 1);
+			array[count - 1] = null;
+		} else {
+			val hash = (HashChildren) children;
+			hash.remove(child);
+			if (hash.size <= HASH_MIN) {
+				val array = new Node[INLINE_MAX];
+				int count = 0;
+				for(val e : hash.table) {
+					if (e != null) {
+						array[count++] = e;
+					}
+				}
+				node.children = array;
+			}
+		}
+	}
+
+	/** inline arrays are filled from start, and null-terminated when not full */
+	private static int inlineCount(Node[] array) {
+		int count = 0;
+		while(count < array.length && array[count] != null) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @return children nodes, as array possibly containing null slots
+	 */
+	private static Node[] childSlots(Node node) {
+		val children = node.children;
+		if (children == null) {
+			return EMPTY_NODES;
+		} else if (children instanceof Node) {
+			return new Node[] { (Node) children };
+		} else if (children instanceof Node[]) {
+			return (Node[]) children;
+		} else {
+			return ((HashChildren) children).table;
+		}
+	}
+
+	private static final Node[] EMPTY_NODES = new Node[0];
+
+	private Node findNode(NodeNamesPath path) {
+		Node node = root;
+		val len = path.size();
+		for(int i = 0; i < len && node != null; i++) {
+			node = childOf(node, path.get(i));
+		}
+		return node;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return count of paths with a value
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		root.value = null;
+		root.children = null;
+		size = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(NodeNamesPath path) {
+		val node = findNode(path);
+		return (node != null)? (V) node.value : null;
+	}
+
+	public boolean containsKey(NodeNamesPath path) {
+		val node = findNode(path);
+		return node != null && node.value != null;
+	}
+
+	/**
+	 * @return true if some path with a value starts with prefix (or is equal)
+	 */
+	public boolean containsPrefix(NodeNamesPath prefix) {
+		val node = findNode(prefix);
+		return node != null && (node.value != null || node.children != null);
+	}
+
+	/**
+	 * @return previous value, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(NodeNamesPath path, V value) {
+		if (value == null) {
+			throw new NullPointerException("value");
+		}
+		Node node = root;
+		val len = path.size();
+		for(int i = 0; i < len; i++) {
+			node = getOrAddChild(node, path.get(i));
+		}
+		val prev = node.value;
+		node.value = value;
+		if (prev == null) {
+			size++;
+		}
+		return (V) prev;
+	}
+
+	/**
+	 * remove value of path, and prune nodes without value and children
+	 * @return previous value, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(NodeNamesPath path) {
+		val len = path.size();
+		val nodes = new Node[len + 1];
+		nodes[0] = root;
+		for(int i = 0; i < len; i++) {
+			val child = childOf(nodes[i], path.get(i));
+			if (child == null) {
+				return null;
+			}
+			nodes[i + 1] = child;
+		}
+		val node = nodes[len];
+		val prev = node.value;
+		if (prev == null) {
+			return null;
+		}
+		node.value = null;
+		size--;
+		for(int i = len; i > 0 && nodes[i].value == null && nodes[i].children == null; i--) {
+			removeChild(nodes[i - 1], nodes[i]);
+		}
+		return (V) prev;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return entry of longest prefix of path (or path itself) having a value, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public Entry<V> longestPrefixMatch(NodeNamesPath path) {
+		Node node = root;
+		int matchLen = -1;
+		Object matchValue = null;
+		val len = path.size();
+		for(int i = 0; ; i++) {
+			if (node.value != null) {
+				matchLen = i;
+				matchValue = node.value;
+			}
+			if (i == len) {
+				break;
+			}
+			node = childOf(node, path.get(i));
+			if (node == null) {
+				break;
+			}
+		}
+		return (matchLen >= 0)? new Entry<V>(path.subPath(matchLen), (V) matchValue) : null;
+	}
+
+	/**
+	 * @return longest prefix of path that is also a prefix of some path in this trie
+	 */
+	public NodeNamesPath commonPathWith(NodeNamesPath path) {
+		Node node = root;
+		val len = path.size();
+		int i = 0;
+		for(; i < len; i++) {
+			node = childOf(node, path.get(i));
+			if (node == null || (node.value == null && node.children == null)) {
+				break;
+			}
+		}
+		return (i == len)? path : path.subPath(i);
+	}
+
+	/**
+	 * @return longest common path of all paths starting with prefix, or null if none
+	 * example: {"a/b/c/d", "a/b/c/e"} commonPathOf("a") -> "a/b/c"
+	 */
+	public NodeNamesPath commonPathOf(NodeNamesPath prefix) {
+		Node node = findNode(prefix);
+		if (node == null || (node.value == null && node.children == null)) {
+			return null;
+		}
+		NodeNamesPath res = prefix;
+		while(node.value == null && node.children instanceof Node) {
+			node = (Node) node.children;
+			res = res.toChild(node.name);
+		}
+		return res;
+	}
+
+	/**
+	 * @return longest common path of all paths, or null if empty
+	 */
+	public NodeNamesPath commonPath() {
+		return commonPathOf(NodeNamesPath.ROOT);
+	}
+
+	// iteration
+	// ------------------------------------------------------------------------
+
+	/**
+	 * immutable (path, value) entry
+	 */
+	public static final class Entry<V> implements Map.Entry<NodeNamesPath,V> {
+		private final NodeNamesPath path;
+		private final V value;
+
+		public Entry(NodeNamesPath path, V value) {
+			this.path = path;
+			this.value = value;
+		}
+
+		@Override
+		public NodeNamesPath getKey() {
+			return path;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String toString() {
+			return path + "=" + value;
+		}
+	}
+
+	public void forEach(BiConsumer<NodeNamesPath,? super V> callback) {
+		forEachInSubtree(NodeNamesPath.ROOT, callback);
+	}
+
+	/**
+	 * iterate (depth-first, unordered) on all paths starting with prefix (including prefix itself)
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachInSubtree(NodeNamesPath prefix, BiConsumer<NodeNamesPath,? super V> callback) {
+		val node = findNode(prefix);
+		if (node == null) {
+			return;
+		}
+		val names = new ArrayList<NodeName>();
+		for(int i = 0; i < prefix.size(); i++) {
+			names.add(prefix.get(i));
+		}
+		recursiveForEach(node, prefix, names, (BiConsumer<NodeNamesPath,Object>) callback);
+	}
+
+	private static void recursiveForEach(Node node, NodeNamesPath nodePath, ArrayList<NodeName> names, BiConsumer<NodeNamesPath,Object> callback) {
+		if (node.value != null) {
+			val path = (nodePath != null)? nodePath : NodeNamesPath.wrap(names.toArray(new NodeName[names.size()]));
+			callback.accept(path, node.value);
+		}
+		for(val child : childSlots(node)) {
+			if (child == null) {
+				continue;
+			}
+			names.add(child.name);
+			recursiveForEach(child, null, names, callback);
+			names.remove(names.size() - 1);
+		}
+	}
+
+	public Iterator<Entry<V>> iterator() {
+		return subtreeIterator(NodeNamesPath.ROOT);
+	}
+
+	/**
+	 * lazy iterator (depth-first, unordered) on all paths starting with prefix (including prefix itself)
+	 * trie must not be modified while iterating
+	 */
+	public Iterator<Entry<V>> subtreeIterator(NodeNamesPath prefix) {
+		return new SubtreeIterator<V>(findNode(prefix), prefix);
+	}
+
+	private static final class SubtreeIterator<V> implements Iterator<Entry<V>> {
+		private final int prefixLen;
+		private Node[] nodeStack = new Node[8];
+		private Node[][] slotsStack = new Node[8][];
+		private int[] slotIndexStack = new int[8];
+		private int depth;
+		private NodeName[] names;
+		private Entry<V> next;
+
+		SubtreeIterator(Node start, NodeNamesPath prefix) {
+			this.prefixLen = prefix.size();
+			this.names = new NodeName[prefixLen + 8];
+			for(int i = 0; i < prefixLen; i++) {
+				names[i] = prefix.get(i);
+			}
+			if (start != null) {
+				push(start);
+				if (start.value != null) {
+					next = entryOf(start);
+				} else {
+					advance();
+				}
+			}
+		}
+
+		private void push(Node node) {
+			if (depth == nodeStack.length) {
+				val newLen = 2 * depth;
+				nodeStack = Arrays.copyOf(nodeStack, newLen);
+				slotsStack = Arrays.copyOf(slotsStack, newLen);
+				slotIndexStack = Arrays.copyOf(slotIndexStack, newLen);
+			}
+			nodeStack[depth] = node;
+			slotsStack[depth] = childSlots(node);
+			slotIndexStack[depth] = 0;
+			depth++;
+		}
+
+		@SuppressWarnings("unchecked")
+		private Entry<V> entryOf(Node node) {
+			val len = prefixLen + depth - 1;
+			val elts = new NodeName[len];
+			System.arraycopy(names, 0, elts, 0, len);
+			return new Entry<V>(NodeNamesPath.wrap(elts), (V) node.value);
+		}
+
+		private void advance() {
+			next = null;
+			while(depth > 0) {
+				val top = depth - 1;
+				val slots = slotsStack[top];
+				Node child = null;
+				while(slotIndexStack[top] < slots.length && child == null) {
+					child = slots[slotIndexStack[top]++];
+				}
+				if (child == null) {
+					depth--;
+					nodeStack[depth] = null;
+					slotsStack[depth] = null;
+					continue;
+				}
+				val nameIndex = prefixLen + depth - 1;
+				if (nameIndex == names.length) {
+					names = Arrays.copyOf(names, 2 * names.length);
+				}
+				names[nameIndex] = child.name;
+				push(child);
+				if (child.value != null) {
+					next = entryOf(child);
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<V> next() {
+			val res = next;
+			if (res == null) {
+				throw new NoSuchElementException();
+			}
+			advance();
+			return res;
+		}
+	}
+
+}
@@ -1,19 +1,25 @@
 package org.path4j.encoder;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Predicate;
 
 import org.path4j.NodeName;
 import org.path4j.NodeNameEncoder;
 import org.path4j.encoder.NodeNameEncoderOption.EncodeSizeResult;
+import org.path4j.impl.encoders.ByteArrayNodeNameEncoderOptions;
 import org.path4j.impl.encoders.ByteStructNodeNameEncoderOptions;
 import org.path4j.impl.encoders.CharStructNodeNameEncoderOptions;
 import org.path4j.impl.encoders.DefaultNodeNameEncoderOptions;
-import org.path4j.impl.encoders.DefaultNodeNameEncoderOptions.CharArrayNodeName;
+import org.path4j.impl.encoders.LongPackedNodeNameEncoderOptions;
+import org.path4j.impl.interners.BoundedNodeNameInterner;
+import org.path4j.impl.interners.ConcurrentNodeNameInterner;
+import org.path4j.impl.interners.CopyOnWriteNodeNameInterner;
+import org.path4j.impl.interners.NodeNameFrequencyCounter;
 
 import lombok.val;
 
@@ -21,66 +27,328 @@ public class DefaultNodeNameEncoder extends NodeNameEncoder {
 
 	private final List<NodeNameEncoderOption> encoders;
 
-	private int internalizeMaxPathLevel;
+	/**
+	 * dispatch table of applicable encoders, indexed by name length, for names with all chars in range 01-7F.
+	 * last slot is for names longer than any bounded length encoder
+	 */
+	private final NodeNameEncoderOption[][] simpleCharsEncodersByLength;
+
+	/** same as simpleCharsEncodersByLength, for names containing other chars */
+	private final NodeNameEncoderOption[][] otherEncodersByLength;
+
+	/** path elements with level < internalizeMaxPathLevel are always internalized */
+	private final int internalizeMaxPathLevel;
 	
 	private final Predicate<NodeName> decideInternalize;
 
-	private Map<String,NodeName> interned;
+	/**
+	 * optional frequency counter per (name, path level), for internalizing hot names at level >= internalizeMaxPathLevel
+	 */
+	private final NodeNameFrequencyCounter levelFrequencyCounter;
+
+	/**
+	 * interned names table, shared by all threads calling encode()
+	 * see ConcurrentNodeNameInterner for concurrent encoding threads, 
+	 * or CopyOnWriteNodeNameInterner for read-mostly small tables
+	 */
+	private final NodeNameInterner interner;
 	
 	// ------------------------------------------------------------------------
 	
 	public DefaultNodeNameEncoder(Collection<NodeNameEncoderOption> encoders, 
 			int internalizeMaxPathLevel,
 			Predicate<NodeName> decideInternalize,
-			Map<String,NodeName> interned) {
+			NodeNameInterner interner,
+			NodeNameFrequencyCounter levelFrequencyCounter) {
+		Objects.requireNonNull(interner, "interner");
 		this.encoders = new ArrayList<>(encoders);
+		this.simpleCharsEncodersByLength = buildEncodersByLength(this.encoders, true);
+		this.otherEncodersByLength = buildEncodersByLength(this.encoders, false);
 		this.internalizeMaxPathLevel = internalizeMaxPathLevel;
 		this.decideInternalize = decideInternalize;
-		this.interned = (interned != null)? new HashMap<>(interned) : new HashMap<>();
+		this.interner = interner;
+		this.levelFrequencyCounter = levelFrequencyCounter;
+	}
+
+	/**
+	 * factory method, not a constructor: avoid ambiguous calls with (.., Map<String,NodeName>) constructor when passing null
+	 */
+	public static DefaultNodeNameEncoder withInterner(Collection<NodeNameEncoderOption> encoders, 
+			int internalizeMaxPathLevel,
+			Predicate<NodeName> decideInternalize,
+			NodeNameInterner interner) {
+		return new DefaultNodeNameEncoder(encoders, internalizeMaxPathLevel, decideInternalize, interner, null);
+	}
+
+	/**
+	 * @param interned initial interned names, using copy-on-write interning (not suited for concurrent inserts)
+	 */
+	public DefaultNodeNameEncoder(Collection<NodeNameEncoderOption> encoders, 
+			int internalizeMaxPathLevel,
+			Predicate<NodeName> decideInternalize,
+			Map<String,NodeName> interned) {
+		this(encoders, internalizeMaxPathLevel, decideInternalize, new CopyOnWriteNodeNameInterner(), null);
+		if (interned != null) {
+			for(val name: interned.values()) {
+				interner.intern(name);
+			}
+		}
 	}
 
+	/**
+	 * default encoder: names at levels 0-2 are always interned, hot deeper names are promoted,
+	 * in a ConcurrentNodeNameInterner with lock-free lookups.
+	 * Interned names are never evicted: see createDefaultBounded() for long-running processes encoding ever-changing trees
+	 */
 	public static DefaultNodeNameEncoder createDefault() {
+		return createDefault(new ConcurrentNodeNameInterner());
+	}
+
+	/**
+	 * same as createDefault(), with a BoundedNodeNameInterner evicting least-recently-used names over maxWeight.
+	 * lookups of interned names lock a segment of the interner, so this scales less than createDefault() across threads
+	 * @param maxWeight max sum of estimated sizes of interned names
+	 */
+	public static DefaultNodeNameEncoder createDefaultBounded(long maxWeight) {
+		return createDefault(new BoundedNodeNameInterner(maxWeight));
+	}
+
+	/**
+	 * same as createDefault(), with given interner
+	 */
+	public static DefaultNodeNameEncoder createDefault(NodeNameInterner interner) {
 		val encoders = new ArrayList<NodeNameEncoderOption>();
+		// first, so long packed words are chosen over bytes fields when estimated sizes are equal
+		encoders.addAll(LongPackedNodeNameEncoderOptions.DEFAULTS);
 		encoders.addAll(ByteStructNodeNameEncoderOptions.DEFAULTS);
 		encoders.addAll(CharStructNodeNameEncoderOptions.DEFAULTS);
-		return new DefaultNodeNameEncoder(encoders, 3, null, new HashMap<>());
+		encoders.addAll(ByteArrayNodeNameEncoderOptions.DEFAULTS);
+		// sampled: 1 in 4 deep names writes to the shared sketch
+		val levelFrequencyCounter = new NodeNameFrequencyCounter(64 * 1024, 16, 4);
+		return new DefaultNodeNameEncoder(encoders, 3, null, interner, levelFrequencyCounter);
 	}
 	
+	private static NodeNameEncoderOption[][] buildEncodersByLength(List<NodeNameEncoderOption> encoders, boolean simpleChars) {
+		// table covers all bounded lengths, last slot is for longer names, accepted only by unbounded encoders
+		int maxBoundedLength = 0;
+		for(val e: encoders) {
+			val maxLength = e.getMaxLength();
+			maxBoundedLength = Math.max(maxBoundedLength, (maxLength != Integer.MAX_VALUE)? maxLength : e.getMinLength());
+		}
+		val res = new NodeNameEncoderOption[maxBoundedLength + 2][];
+		for(int len = 0; len < res.length; len++) {
+			// keep encoders declaration order, for choosing first one when estimated sizes are equal
+			val lenEncoders = new ArrayList<NodeNameEncoderOption>();
+			for(val e: encoders) {
+				if (len < e.getMinLength() || len > e.getMaxLength()) {
+					continue;
+				}
+				if (e.isSimpleCharsOnly() && !simpleChars) {
+					continue;
+				}
+				lenEncoders.add(e);
+			}
+			res[len] = lenEncoders.toArray(new NodeNameEncoderOption[lenEncoders.size()]);
+		}
+		return res;
+	}
+
 	// ------------------------------------------------------------------------
 	
 	@Override
 	public NodeName encode(String name) {
-		val found = interned.get(name);
+		return encode(name, 0, name.length());
+	}
+
+	/**
+	 * lookup interned names first, using a lookup key view on source range, before encoding a new NodeName
+	 */
+	@Override
+	public NodeName encode(CharSequence source, int offset, int length) {
+		val found = interner.get(new CharSequenceLookupKey(source, offset, length));
 		if (found != null) {
 			return found;
 		}
-		
-		NodeName res = doEncode(name);
-		
-		if (decideInternalize != null) {
-			boolean intern = decideInternalize.test(res);
-			if (intern) {
-				doPutInternalize(name, res);
+		val sizeRes = new EncodeSizeResult();
+		NodeName res = doEncode(source, offset, length, sizeRes);
+		return internalizeEncoded(res, sizeRes.estimatedSize);
+	}
+
+	@Override
+	public NodeName encode(char[] source, int offset, int length) {
+		val found = interner.get(new CharArrayLookupKey(source, offset, length));
+		if (found != null) {
+			return found;
+		}
+		val sizeRes = new EncodeSizeResult();
+		NodeName res = doEncode(source, offset, length, sizeRes);
+		return internalizeEncoded(res, sizeRes.estimatedSize);
+	}
+
+	/**
+	 * encode name from UTF-8 bytes: all-ascii names are looked up and encoded directly from bytes, 
+	 * only names containing other chars are decoded
+	 */
+	@Override
+	public NodeName encode(byte[] utf8, int offset, int length) {
+		if (! ByteStructNodeNameEncoderOptions.isAllSimpleChars(utf8, offset, length)) {
+			val name = new String(utf8, offset, length, StandardCharsets.UTF_8);
+			return encode(name, 0, name.length());
+		}
+		val found = interner.get(new AsciiBytesLookupKey(utf8, offset, length));
+		if (found != null) {
+			return found;
+		}
+		val sizeRes = new EncodeSizeResult();
+		NodeName res = doEncodeSimpleBytes(utf8, offset, length, sizeRes);
+		return internalizeEncoded(res, sizeRes.estimatedSize);
+	}
+
+	public NodeName encodePathElement(String name, int pathLevel) {
+		return encodePathElement(name, 0, name.length(), pathLevel);
+	}
+
+	@Override
+	public NodeName encodePathElement(CharSequence source, int offset, int length, int pathLevel) {
+		val key = new CharSequenceLookupKey(source, offset, length);
+		val sizeRes = new EncodeSizeResult();
+		if (! isInternCandidate(key, pathLevel)) {
+			return doEncode(source, offset, length, sizeRes);
+		}
+		val found = interner.get(key);
+		if (found != null) {
+			return found;
+		}
+		NodeName res = doEncode(source, offset, length, sizeRes);
+		return internalizeEncodedPathElement(res, sizeRes.estimatedSize, pathLevel);
+	}
+
+	@Override
+	public NodeName encodePathElement(byte[] utf8, int offset, int length, int pathLevel) {
+		if (! ByteStructNodeNameEncoderOptions.isAllSimpleChars(utf8, offset, length)) {
+			val name = new String(utf8, offset, length, StandardCharsets.UTF_8);
+			return encodePathElement(name, 0, name.length(), pathLevel);
+		}
+		val key = new AsciiBytesLookupKey(utf8, offset, length);
+		val sizeRes = new EncodeSizeResult();
+		if (! isInternCandidate(key, pathLevel)) {
+			return doEncodeSimpleBytes(utf8, offset, length, sizeRes);
+		}
+		val found = interner.get(key);
+		if (found != null) {
+			return found;
+		}
+		NodeName res = doEncodeSimpleBytes(utf8, offset, length, sizeRes);
+		return internalizeEncodedPathElement(res, sizeRes.estimatedSize, pathLevel);
+	}
+
+	/**
+	 * internalize newly encoded name, not found in interner
+	 */
+	private NodeName internalizeEncoded(NodeName res, int estimatedSize) {
+		if (decideInternalize != null && decideInternalize.test(res)) {
+			return interner.intern(res, estimatedSize);
+		}
+		return res;
+	}
+
+	/**
+	 * @return true if name of a path element may be found in, or added to the interner:
+	 * when pathLevel < internalizeMaxPathLevel, when decideInternalize may accept it, or when it is frequently encoded at this pathLevel.
+	 * Other names are encoded without interner lookup
+	 */
+	private boolean isInternCandidate(LookupKey key, int pathLevel) {
+		if (pathLevel < internalizeMaxPathLevel) {
+			return true;
+		}
+		val hot = levelFrequencyCounter != null && levelFrequencyCounter.incrementAndCheckHot(key.hashCode(), pathLevel);
+		return hot || decideInternalize != null;
+	}
+
+	/**
+	 * internalize newly encoded name of an intern candidate path element, not found in interner
+	 */
+	private NodeName internalizeEncodedPathElement(NodeName res, int estimatedSize, int pathLevel) {
+		if (pathLevel < internalizeMaxPathLevel
+				|| (decideInternalize != null && decideInternalize.test(res))) {
+			return interner.intern(res, estimatedSize);
+		}
+		if (levelFrequencyCounter != null && levelFrequencyCounter.isHot(res.hashCode(), pathLevel)) {
+			// promote hot name at deeper level
+			return interner.intern(res, estimatedSize);
+		}
+		return res;
+	}
+
+	/**
+	 * @return encoders applicable to names of length, after single scan of name to check for simple chars
+	 */
+	private NodeNameEncoderOption[] encodersFor(boolean allSimpleChars, int length) {
+		val encodersByLength = (allSimpleChars)? simpleCharsEncodersByLength : otherEncodersByLength;
+		return encodersByLength[Math.min(length, encodersByLength.length - 1)];
+	}
+
+	/**
+	 * encode name in range [offset, offset+length) of source
+	 * @param sizeRes filled with estimated size of returned NodeName
+	 */
+	private NodeName doEncode(CharSequence source, int offset, int length, EncodeSizeResult sizeRes) {
+		NodeName res = null;
+		val allSimpleChars = ByteStructNodeNameEncoderOptions.isAllSimpleChars(source, offset, length);
+		int bestSizeSoFar = DefaultNodeNameEncoderOptions.defaultStringEncoderSize(length, allSimpleChars);
+		sizeRes.estimatedSize = bestSizeSoFar;
+		val lenEncoders = encodersFor(allSimpleChars, length);
+		for(val e: lenEncoders) {
+			NodeName tmpres = e.tryEncodePrechecked(source, offset, length, bestSizeSoFar, sizeRes);
+			if (tmpres != null && sizeRes.estimatedSize < bestSizeSoFar) {
+				bestSizeSoFar = sizeRes.estimatedSize;
+				res = tmpres;
 			}
 		}
+		
+		if (res == null) {
+			// fallback, encode using default CharArrayNodeName
+			return DefaultNodeNameEncoderOptions.CHAR_ARRAY_OPTION.tryEncodePrechecked(source, offset, length, bestSizeSoFar, sizeRes);
+		}
+		sizeRes.estimatedSize = bestSizeSoFar;
 		return res;
 	}
 
-	private void doPutInternalize(String name, NodeName res) {
-		// do copy? (avoid lock / concurrent issues)
-		val newInterned = new HashMap<>(interned);
-		newInterned.put(name, res);
-		this.interned = newInterned;
+	/**
+	 * same as doEncode(CharSequence, ..) for char[] source
+	 */
+	private NodeName doEncode(char[] source, int offset, int length, EncodeSizeResult sizeRes) {
+		NodeName res = null;
+		val allSimpleChars = ByteStructNodeNameEncoderOptions.isAllSimpleChars(source, offset, length);
+		int bestSizeSoFar = DefaultNodeNameEncoderOptions.defaultStringEncoderSize(length, allSimpleChars);
+		sizeRes.estimatedSize = bestSizeSoFar;
+		val lenEncoders = encodersFor(allSimpleChars, length);
+		for(val e: lenEncoders) {
+			NodeName tmpres = e.tryEncodePrechecked(source, offset, length, bestSizeSoFar, sizeRes);
+			if (tmpres != null && sizeRes.estimatedSize < bestSizeSoFar) {
+				bestSizeSoFar = sizeRes.estimatedSize;
+				res = tmpres;
+			}
+		}
+		
+		if (res == null) {
+			// fallback, encode using default CharArrayNodeName
+			return DefaultNodeNameEncoderOptions.CHAR_ARRAY_OPTION.tryEncodePrechecked(source, offset, length, bestSizeSoFar, sizeRes);
+		}
+		sizeRes.estimatedSize = bestSizeSoFar;
+		return res;
 	}
 
-	private NodeName doEncode(String name) {
-		val stringEncodeSize = DefaultNodeNameEncoderOptions.defaultStringEncoderSize(name);
+	/**
+	 * same as doEncode(CharSequence, ..) for bytes already checked to be all in range 01-7F
+	 */
+	private NodeName doEncodeSimpleBytes(byte[] source, int offset, int length, EncodeSizeResult sizeRes) {
 		NodeName res = null;
-		int bestSizeSoFar = stringEncodeSize;
-		EncodeSizeResult sizeRes = new EncodeSizeResult();
+		int bestSizeSoFar = DefaultNodeNameEncoderOptions.defaultStringEncoderSize(length, true);
 		sizeRes.estimatedSize = bestSizeSoFar;
-		for(val e: encoders) {
-			NodeName tmpres = e.tryEncode(name, bestSizeSoFar, sizeRes);
+		val lenEncoders = encodersFor(true, length);
+		for(val e: lenEncoders) {
+			NodeName tmpres = e.tryEncodePrechecked(source, offset, length, bestSizeSoFar, sizeRes);
 			if (tmpres != null && sizeRes.estimatedSize < bestSizeSoFar) {
 				bestSizeSoFar = sizeRes.estimatedSize;
 				res = tmpres;
@@ -89,8 +357,9 @@ public class DefaultNodeNameEncoder extends NodeNameEncoder {
 		
 		if (res == null) {
 			// fallback, encode using default CharArrayNodeName
-			res = new CharArrayNodeName(name.toCharArray());
+			return DefaultNodeNameEncoderOptions.CHAR_ARRAY_OPTION.tryEncodePrechecked(source, offset, length, bestSizeSoFar, sizeRes);
 		}
+		sizeRes.estimatedSize = bestSizeSoFar;
 		return res;
 	}
 
@@ -102,20 +371,122 @@ public class DefaultNodeNameEncoder extends NodeNameEncoder {
 		val pathCount = pathElts.length;
 		val res = new NodeName[pathCount];
 		for(int i = 0; i < pathCount; i++) {
-			val pathElt = pathElts[i];
-			NodeName resElt;
-//			if (i < internalizeMaxPathLevel) {
-//				resElt = interned.get(pathElt);
-//				if (resElt == null) {
-//					resElt = doEncode(pathElt);
-//					doPutInternalize(pathElt, resElt);
-//				}
-//			} else {
-				resElt = encode(pathElt);
-//			}
-			res[i] = resElt;
+			res[i] = encodePathElement(pathElts[i], i);
 		}
 		return res;
 	}
 	
+	// lookup keys
+	// ------------------------------------------------------------------------
+
+	/**
+	 * temporary view on a source range, for looking up interned names before encoding.
+	 * 
+	 * hashCode() is the same as String.hashCode().
+	 * equals() delegates to contentEquals() of the interned name, so that interned encodings with
+	 * sequential char access (Utf8ByteArrayNodeName) are compared in O(length).
+	 * Relies on map lookups calling key.equals(entryKey), as java.util.HashMap and ConcurrentHashMap do
+	 */
+	private static abstract class LookupKey extends NodeName {
+		protected final int length;
+		protected int hash;
+
+		LookupKey(int length) {
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public String toText() {
+			val sb = new StringBuilder(length);
+			for(int i = 0; i < length; i++) {
+				sb.append(charAt(i));
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof NodeName))
+				return false;
+			val other = (NodeName) obj;
+			return other.contentEquals(this);
+		}
+	}
+
+	private static final class CharSequenceLookupKey extends LookupKey {
+		private final CharSequence source;
+		private final int offset;
+
+		CharSequenceLookupKey(CharSequence source, int offset, int length) {
+			super(length);
+			this.source = source;
+			this.offset = offset;
+			int h = 0;
+			for(int i = 0; i < length; i++) {
+				h = 31 * h + source.charAt(offset + i);
+			}
+			this.hash = h;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return source.charAt(offset + index);
+		}
+	}
+
+	private static final class CharArrayLookupKey extends LookupKey {
+		private final char[] source;
+		private final int offset;
+
+		CharArrayLookupKey(char[] source, int offset, int length) {
+			super(length);
+			this.source = source;
+			this.offset = offset;
+			int h = 0;
+			for(int i = 0; i < length; i++) {
+				h = 31 * h + source[offset + i];
+			}
+			this.hash = h;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return source[offset + index];
+		}
+	}
+
+	/** view on bytes already checked to be all in range 01-7F */
+	private static final class AsciiBytesLookupKey extends LookupKey {
+		private final byte[] source;
+		private final int offset;
+
+		AsciiBytesLookupKey(byte[] source, int offset, int length) {
+			super(length);
+			this.source = source;
+			this.offset = offset;
+			int h = 0;
+			for(int i = 0; i < length; i++) {
+				h = 31 * h + source[offset + i];
+			}
+			this.hash = h;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) source[offset + index];
+		}
+	}
+
 }
@@ -0,0 +1,95 @@
+package org.path4j.encoder;
+
+import org.path4j.NodeName;
+import org.path4j.NodeNameEncoder;
+import org.path4j.NodeNamesPath;
+import org.path4j.impl.interners.NodeNamesPathInterner;
+
+/**
+ * decorator encoder, returning canonical NodeNamesPath instances from encodePath(), 
+ * using a NodeNamesPathInterner that may be shared by several encoders.
+ * Names are encoded by the delegate encoder
+ */
+public class InterningNodeNameEncoder extends NodeNameEncoder {
+
+	private final NodeNameEncoder delegate;
+
+	private final NodeNamesPathInterner pathInterner;
+
+	// ------------------------------------------------------------------------
+
+	public InterningNodeNameEncoder(NodeNameEncoder delegate, NodeNamesPathInterner pathInterner) {
+		this.delegate = delegate;
+		this.pathInterner = pathInterner;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public NodeNameEncoder getDelegate() {
+		return delegate;
+	}
+
+	public NodeNamesPathInterner getPathInterner() {
+		return pathInterner;
+	}
+
+	@Override
+	public NodeName encode(String name) {
+		return delegate.encode(name);
+	}
+
+	@Override
+	public NodeName encode(CharSequence source, int offset, int length) {
+		return delegate.encode(source, offset, length);
+	}
+
+	@Override
+	public NodeName encode(char[] source, int offset, int length) {
+		return delegate.encode(source, offset, length);
+	}
+
+	@Override
+	public NodeName encode(byte[] utf8, int offset, int length) {
+		return delegate.encode(utf8, offset, length);
+	}
+
+	@Override
+	public NodeName encodePathElement(CharSequence source, int offset, int length, int pathLevel) {
+		return delegate.encodePathElement(source, offset, length, pathLevel);
+	}
+
+	@Override
+	public NodeName encodePathElement(byte[] utf8, int offset, int length, int pathLevel) {
+		return delegate.encodePathElement(utf8, offset, length, pathLevel);
+	}
+
+	@Override
+	public NodeName[] encodePathNodeNames(String[] pathElts) {
+		return delegate.encodePathNodeNames(pathElts);
+	}
+
+	@Override
+	public NodeNamesPath encodePath(String path) {
+		return pathInterner.intern(delegate.encodePath(path));
+	}
+
+	@Override
+	public NodeNamesPath encodePath(String path, NodeNamesPath prevPath) {
+		return pathInterner.intern(delegate.encodePath(path, prevPath));
+	}
+
+	@Override
+	public NodeNamesPath encodePath(byte[] utf8, int offset, int length) {
+		return pathInterner.intern(delegate.encodePath(utf8, offset, length));
+	}
+
+	@Override
+	public NodeNamesPath encodePath(String[] pathElts) {
+		return pathInterner.intern(delegate.encodePath(pathElts));
+	}
+
+	public NodeNamesPath intern(NodeNamesPath path) {
+		return pathInterner.intern(path);
+	}
+
+}
@@ -1,13 +1,117 @@
 package org.path4j.encoder;
 
+import java.nio.charset.StandardCharsets;
+
 import org.path4j.NodeName;
+import org.path4j.impl.encoders.ByteStructNodeNameEncoderOptions;
 
 public abstract class NodeNameEncoderOption {
 
+	/** value for getFixedLength(), when option may encode names of any length */
+	public static final int ANY_LENGTH = -1;
+
 	public static class EncodeSizeResult {
 		public int estimatedSize;
 	}
-	
+
 	public abstract NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult);
 
+	/**
+	 * same as tryEncode(), but caller has already checked preconditions
+	 * from getMinLength()/getMaxLength() and isSimpleCharsOnly(), so name is not re-scanned
+	 */
+	public NodeName tryEncodePrechecked(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		return tryEncode(name, maxEstimatedSize, sizeResult);
+	}
+
+	/**
+	 * @return the only name length accepted by this option, or ANY_LENGTH
+	 */
+	public int getFixedLength() {
+		return ANY_LENGTH;
+	}
+
+	/**
+	 * @return min name length accepted by this option, default to getFixedLength(), or 0 for ANY_LENGTH
+	 */
+	public int getMinLength() {
+		int fixedLength = getFixedLength();
+		return (fixedLength != ANY_LENGTH)? fixedLength : 0;
+	}
+
+	/**
+	 * @return max name length accepted by this option, default to getFixedLength(), or Integer.MAX_VALUE for ANY_LENGTH
+	 */
+	public int getMaxLength() {
+		int fixedLength = getFixedLength();
+		return (fixedLength != ANY_LENGTH)? fixedLength : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @return true if this option accepts only names with all chars in range 01-7F
+	 */
+	public boolean isSimpleCharsOnly() {
+		return false;
+	}
+
+	// Range based encoding, for name in range [offset, offset+length) of source
+	// ------------------------------------------------------------------------
+
+	public NodeName tryEncode(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		if (! acceptLength(length)) {
+			return null;
+		}
+		if (isSimpleCharsOnly() && ! ByteStructNodeNameEncoderOptions.isAllSimpleChars(source, offset, length)) {
+			return null;
+		}
+		return tryEncodePrechecked(source, offset, length, maxEstimatedSize, sizeResult);
+	}
+
+	public NodeName tryEncode(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		if (! acceptLength(length)) {
+			return null;
+		}
+		if (isSimpleCharsOnly() && ! ByteStructNodeNameEncoderOptions.isAllSimpleChars(source, offset, length)) {
+			return null;
+		}
+		return tryEncodePrechecked(source, offset, length, maxEstimatedSize, sizeResult);
+	}
+
+	/**
+	 * @param source bytes of ISO-8859-1 chars (one char per byte), so ascii chars are encoded as is
+	 */
+	public NodeName tryEncode(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		if (! acceptLength(length)) {
+			return null;
+		}
+		if (isSimpleCharsOnly() && ! ByteStructNodeNameEncoderOptions.isAllSimpleChars(source, offset, length)) {
+			return null;
+		}
+		return tryEncodePrechecked(source, offset, length, maxEstimatedSize, sizeResult);
+	}
+
+	private boolean acceptLength(int length) {
+		return getMinLength() <= length && length <= getMaxLength();
+	}
+
+	/**
+	 * same as tryEncodePrechecked(name, ..), for name in range [offset, offset+length) of source.
+	 * default implementation extracts name as a String,
+	 * fixed size encoders override it to encode without temporary String
+	 */
+	public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		return tryEncodePrechecked(source.subSequence(offset, offset + length).toString(), maxEstimatedSize, sizeResult);
+	}
+
+	public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		return tryEncodePrechecked(new String(source, offset, length), maxEstimatedSize, sizeResult);
+	}
+
+	/**
+	 * @param source bytes of ISO-8859-1 chars (one char per byte)
+	 */
+	public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+		return tryEncodePrechecked(new String(source, offset, length, StandardCharsets.ISO_8859_1), maxEstimatedSize, sizeResult);
+	}
+
 }
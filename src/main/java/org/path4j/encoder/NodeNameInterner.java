@@ -0,0 +1,32 @@
+package org.path4j.encoder;
+
+import org.path4j.NodeName;
+
+/**
+ * table of shared NodeName instances, for internalizing equal names (similar to String.intern())
+ * 
+ * names are their own keys: no String is retained for lookup
+ */
+public abstract class NodeNameInterner {
+
+	/**
+	 * @return the interned instance equal to name, or null if not interned
+	 */
+	public abstract NodeName get(NodeName name);
+
+	/**
+	 * internalize name, unless an equal one is already interned
+	 * @return the interned instance, which may be a previous instance equal to name
+	 */
+	public abstract NodeName intern(NodeName name);
+
+	/**
+	 * same as intern(name), giving estimated size of name, for weight-bounded interners
+	 */
+	public NodeName intern(NodeName name, int estimatedSize) {
+		return intern(name);
+	}
+
+	public abstract int size();
+
+}
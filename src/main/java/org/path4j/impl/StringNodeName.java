@@ -13,4 +13,29 @@ public class StringNodeName extends NodeName {
 	public String toText() {
 		return name;
 	}
-}
\ No newline at end of file
+
+	@Override
+	public int length() {
+		return name.length();
+	}
+
+	@Override
+	public char charAt(int index) {
+		return name.charAt(index);
+	}
+
+	@Override
+	public int hashCode() {
+		return name.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof StringNodeName) {
+			return name.equals(((StringNodeName) obj).name);
+		}
+		return super.equals(obj);
+	}
+}
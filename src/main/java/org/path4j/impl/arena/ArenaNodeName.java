@@ -0,0 +1,102 @@
+package org.path4j.impl.arena;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.path4j.NodeName;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * name stored in an OffHeapNameArena, referenced by its 32-bit handle.
+ *
+ * names are unique per arena, so equals() between names of the same arena compares handles only.
+ * instances are canonical per handle, created by the arena only: see OffHeapNameArena.name(handle)
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class ArenaNodeName extends NodeName {
+
+	public final OffHeapNameArena arena;
+	public final int handle;
+
+	@Override
+	public int length() {
+		return arena.length(handle);
+	}
+
+	/**
+	 * charAt() is O(1) for ascii names only
+	 */
+	@Override
+	public boolean isRandomAccess() {
+		return arena.utf8Length(handle) == arena.length(handle);
+	}
+
+	@Override
+	public char charAt(int index) {
+		return arena.charAt(handle, index);
+	}
+
+	@Override
+	public String toText() {
+		return arena.toText(handle);
+	}
+
+	@Override
+	public void appendTo(StringBuilder sb) {
+		arena.appendTo(handle, sb);
+	}
+
+	@Override
+	public void writeUTF(DataOutputStream out) throws IOException {
+		arena.writeUTF(handle, out);
+	}
+
+	@Override
+	public int utfSize() {
+		return arena.utfSize(handle);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer out) {
+		arena.writeTo(handle, out);
+	}
+
+	// sequential access for contentEquals() / compareTo(): positions are byte offsets in slab of handle
+
+	@Override
+	protected int firstCharPos() {
+		return arena.firstCharPos(handle);
+	}
+
+	@Override
+	protected char charAtPos(int pos) {
+		return arena.charAtPos(handle, pos);
+	}
+
+	@Override
+	protected int nextCharPos(int pos) {
+		return arena.nextCharPos(handle, pos);
+	}
+
+	@Override
+	public int hashCode() {
+		return arena.hash(handle);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof ArenaNodeName) {
+			ArenaNodeName other = (ArenaNodeName) obj;
+			if (arena == other.arena) {
+				return handle == other.handle;
+			}
+		}
+		return super.equals(obj);
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.path4j.impl.arena;
+
+import org.path4j.NodeName;
+import org.path4j.NodeNameEncoder;
+import org.path4j.impl.StringNodeName;
+
+/**
+ * encoder storing all names in a shared OffHeapNameArena, 
+ * each NodeName being the canonical small in-heap (arena, handle) object of the name,
+ * so that encoding the same name again allocates nothing.
+ *
+ * for big indexes, callers may keep only int handles (see ArenaNodeName.handle), 
+ * and get NodeName views with toNodeName(handle)
+ *
+ * names longer than OffHeapNameArena.MAX_LENGTH are encoded as StringNodeName
+ */
+public class ArenaNodeNameEncoder extends NodeNameEncoder {
+
+	private final OffHeapNameArena arena;
+
+	// ------------------------------------------------------------------------
+
+	public ArenaNodeNameEncoder() {
+		this(new OffHeapNameArena());
+	}
+
+	public ArenaNodeNameEncoder(OffHeapNameArena arena) {
+		this.arena = arena;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public OffHeapNameArena getArena() {
+		return arena;
+	}
+
+	public NodeName toNodeName(int handle) {
+		return arena.name(handle);
+	}
+
+	@Override
+	public NodeName encode(String name) {
+		return encode(name, 0, name.length());
+	}
+
+	@Override
+	public NodeName encode(CharSequence source, int offset, int length) {
+		if (length > OffHeapNameArena.MAX_LENGTH / 3 && isTooLong(source, offset, length)) {
+			return new StringNodeName(source.subSequence(offset, offset + length).toString());
+		}
+		return arena.internName(source, offset, length);
+	}
+
+	@Override
+	public NodeName encode(char[] source, int offset, int length) {
+		if (length > OffHeapNameArena.MAX_LENGTH / 3) {
+			return encode(new String(source, offset, length));
+		}
+		return arena.internName(source, offset, length);
+	}
+
+	@Override
+	public NodeName encode(byte[] utf8, int offset, int length) {
+		if (length > OffHeapNameArena.MAX_LENGTH / 3) {
+			return super.encode(utf8, offset, length);
+		}
+		return arena.internName(utf8, offset, length);
+	}
+
+	@Override
+	public NodeName encodePathElement(byte[] utf8, int offset, int length, int pathLevel) {
+		return encode(utf8, offset, length);
+	}
+
+	private static boolean isTooLong(CharSequence source, int offset, int length) {
+		int utf8Length = 0;
+		for(int i = offset; i < offset + length; i++) {
+			char c = source.charAt(i);
+			utf8Length += ((c >= 0x0001) && (c <= 0x007F))? 1 : (c > 0x07FF)? 3 : 2;
+		}
+		return utf8Length > OffHeapNameArena.MAX_LENGTH;
+	}
+
+}
@@ -0,0 +1,553 @@
+package org.path4j.impl.arena;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.val;
+
+/**
+ * append-only arena of unique names, stored outside of the java heap in direct ByteBuffer slabs.
+ *
+ * each distinct name is stored once, and identified by a 32-bit handle (its offset / 4 in the arena),
+ * so up to 16 GB of names can be addressed.
+ * An entry is: int hash (same as String.hashCode()), unsigned short utf8 length, unsigned short char length,
+ * then chars as "modified UTF-8" bytes (as DataOutput.writeUTF), 1 byte per ascii char.
+ *
+ * Deduplication uses an in-heap open addressing table of canonical ArenaNodeName, one per distinct name
+ * (about 32 bytes per name, whatever the name length), so that encoders return the same instance for a handle.
+ * Lookups of existing names and reading entries are lock-free, only appending a new name is synchronized
+ * (entries are never modified after being appended).
+ *
+ * Off-heap memory is released only when the arena itself is garbage collected.
+ */
+public class OffHeapNameArena {
+
+	public static final int DEFAULT_SLAB_SIZE = 16 * 1024 * 1024;
+	private static final int MIN_SLAB_SIZE = 128 * 1024;
+
+	/** handle value for no entry, offset 0 of arena is never used */
+	public static final int NO_HANDLE = 0;
+
+	/** max length of a name, both in "modified UTF-8" bytes and in chars */
+	public static final int MAX_LENGTH = 0xFFFF;
+
+	/** estimated in-heap size of an ArenaNodeName: object header, arena reference, handle */
+	private static final int ARENA_NODE_NAME_SIZE = 24;
+
+	private static final int ENTRY_HEADER_SIZE = 8;
+	private static final int HASH_OFFSET = 0;
+	private static final int UTF8_LENGTH_OFFSET = 4;
+	private static final int LENGTH_OFFSET = 6;
+
+	/** entries are 4 bytes aligned, handle = position >>> 2 */
+	private static final int ENTRY_ALIGN_SHIFT = 2;
+	private static final long MAX_ARENA_SIZE = 1L << (32 + ENTRY_ALIGN_SHIFT);
+
+	private final int slabShift;
+	private final int slabMask;
+
+	/** slabs, copied-on-append when a new slab is allocated */
+	private volatile ByteBuffer[] slabs;
+
+	/** next append position in arena, guarded by "this" */
+	private long appendPos;
+
+	/**
+	 * open addressing table of canonical names by handle hash, null for empty slots.
+	 * read without lock, slots and table are written under "this" lock
+	 */
+	private volatile AtomicReferenceArray<ArenaNodeName> table;
+	/** guarded by "this" */
+	private int count;
+
+	// ------------------------------------------------------------------------
+
+	public OffHeapNameArena() {
+		this(DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * @param slabSize size of each direct ByteBuffer, rounded up to a power of 2 (min 128 KB, max 1 GB)
+	 */
+	public OffHeapNameArena(int slabSize) {
+		int size = MIN_SLAB_SIZE;
+		while(size < slabSize && size < (1 << 30)) {
+			size <<= 1;
+		}
+		this.slabShift = Integer.numberOfTrailingZeros(size);
+		this.slabMask = size - 1;
+		this.slabs = new ByteBuffer[] { ByteBuffer.allocateDirect(size) };
+		this.appendPos = 1 << ENTRY_ALIGN_SHIFT; // reserve NO_HANDLE
+		this.table = new AtomicReferenceArray<>(1024);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return handle of name in range [offset, offset+length) of source, appended when not already present
+	 * @throws IllegalArgumentException if name is longer than MAX_LENGTH
+	 */
+	public int intern(CharSequence source, int offset, int length) {
+		return internName(source, offset, length).handle;
+	}
+
+	public int intern(char[] source, int offset, int length) {
+		return intern(CharBuffer.wrap(source), offset, length);
+	}
+
+	public int intern(String name) {
+		return intern(name, 0, name.length());
+	}
+
+	/**
+	 * @return handle of name in range [offset, offset+length) of UTF-8 encoded bytes
+	 */
+	public int intern(byte[] utf8, int offset, int length) {
+		return internName(utf8, offset, length).handle;
+	}
+
+	/**
+	 * same as intern(), returning the canonical ArenaNodeName of the handle
+	 */
+	public ArenaNodeName internName(CharSequence source, int offset, int length) {
+		int hash = 0;
+		int utf8Length = 0;
+		val end = offset + length;
+		for(int i = offset; i < end; i++) {
+			val ch = source.charAt(i);
+			hash = 31 * hash + ch;
+			utf8Length += utfLen(ch);
+		}
+		checkLength(utf8Length);
+		// lock-free lookup first, lock only for appending
+		val found = find(table, hash, source, offset, length);
+		if (found != null) {
+			return found;
+		}
+		return append(hash, utf8Length, source, offset, length);
+	}
+
+	public ArenaNodeName internName(char[] source, int offset, int length) {
+		return internName(CharBuffer.wrap(source), offset, length);
+	}
+
+	public ArenaNodeName internName(String name) {
+		return internName(name, 0, name.length());
+	}
+
+	/**
+	 * same as intern(byte[], ..), returning the canonical ArenaNodeName of the handle
+	 */
+	public ArenaNodeName internName(byte[] utf8, int offset, int length) {
+		val end = offset + length;
+		int hash = 0;
+		for(int i = offset; i < end; i++) {
+			val b = utf8[i];
+			if (b <= 0) {
+				// decode only non-ascii names
+				val name = new String(utf8, offset, length, StandardCharsets.UTF_8);
+				return internName(name, 0, name.length());
+			}
+			hash = 31 * hash + b;
+		}
+		checkLength(length);
+		val found = findAscii(table, hash, utf8, offset, length);
+		if (found != null) {
+			return found;
+		}
+		return appendAscii(hash, utf8, offset, length);
+	}
+
+	/**
+	 * @return canonical ArenaNodeName of handle
+	 * @throws IllegalArgumentException if handle is not a handle of this arena
+	 */
+	public ArenaNodeName name(int handle) {
+		val t = table;
+		val mask = t.length() - 1;
+		int slot = spread(hash(handle)) & mask;
+		for(;;) {
+			val name = t.get(slot);
+			if (name == null) {
+				throw new IllegalArgumentException("unknown handle: " + handle);
+			}
+			if (name.handle == handle) {
+				return name;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private ArenaNodeName find(AtomicReferenceArray<ArenaNodeName> t, int hash, CharSequence source, int offset, int length) {
+		val mask = t.length() - 1;
+		int slot = spread(hash) & mask;
+		for(;;) {
+			val name = t.get(slot);
+			if (name == null) {
+				return null;
+			}
+			if (hash(name.handle) == hash && contentEquals(name.handle, source, offset, length)) {
+				return name;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private ArenaNodeName findAscii(AtomicReferenceArray<ArenaNodeName> t, int hash, byte[] source, int offset, int length) {
+		val mask = t.length() - 1;
+		int slot = spread(hash) & mask;
+		for(;;) {
+			val name = t.get(slot);
+			if (name == null) {
+				return null;
+			}
+			if (hash(name.handle) == hash && asciiBytesEquals(name.handle, source, offset, length)) {
+				return name;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private synchronized ArenaNodeName append(int hash, int utf8Length, CharSequence source, int offset, int length) {
+		// find again, under lock: name may have been appended concurrently
+		val found = find(table, hash, source, offset, length);
+		if (found != null) {
+			return found;
+		}
+		val pos = allocate(ENTRY_HEADER_SIZE + utf8Length);
+		val slab = slabs[slabIndex(pos)];
+		int p = slabOffset(pos);
+		slab.putInt(p + HASH_OFFSET, hash);
+		slab.putChar(p + UTF8_LENGTH_OFFSET, (char) utf8Length);
+		slab.putChar(p + LENGTH_OFFSET, (char) length);
+		p += ENTRY_HEADER_SIZE;
+		val end = offset + length;
+		for(int i = offset; i < end; i++) {
+			p = putUTFChar(slab, p, source.charAt(i));
+		}
+		return addToTable(hash, (int) (pos >>> ENTRY_ALIGN_SHIFT));
+	}
+
+	private synchronized ArenaNodeName appendAscii(int hash, byte[] source, int offset, int length) {
+		val found = findAscii(table, hash, source, offset, length);
+		if (found != null) {
+			return found;
+		}
+		val pos = allocate(ENTRY_HEADER_SIZE + length);
+		val slab = slabs[slabIndex(pos)];
+		val p = slabOffset(pos);
+		slab.putInt(p + HASH_OFFSET, hash);
+		slab.putChar(p + UTF8_LENGTH_OFFSET, (char) length);
+		slab.putChar(p + LENGTH_OFFSET, (char) length);
+		for(int i = 0; i < length; i++) {
+			slab.put(p + ENTRY_HEADER_SIZE + i, source[offset + i]);
+		}
+		return addToTable(hash, (int) (pos >>> ENTRY_ALIGN_SHIFT));
+	}
+
+	private static void checkLength(int utf8Length) {
+		if (utf8Length > MAX_LENGTH) {
+			throw new IllegalArgumentException("name too long for arena, utf8 length: " + utf8Length);
+		}
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * publish new entry, after its bytes are written: 
+	 * the volatile write of the table slot makes them visible to lock-free readers of the slot
+	 */
+	private ArenaNodeName addToTable(int hash, int handle) {
+		val name = new ArenaNodeName(this, handle);
+		val t = table;
+		val mask = t.length() - 1;
+		int slot = spread(hash) & mask;
+		while(t.get(slot) != null) {
+			slot = (slot + 1) & mask;
+		}
+		t.set(slot, name);
+		count++;
+		if (count * 2 > t.length()) {
+			rehash();
+		}
+		return name;
+	}
+
+	/**
+	 * copy to a new table, then publish it: lock-free readers of the previous table still find all its names
+	 */
+	private void rehash() {
+		val t = table;
+		val newTable = new AtomicReferenceArray<ArenaNodeName>(t.length() * 2);
+		val mask = newTable.length() - 1;
+		for(int i = 0; i < t.length(); i++) {
+			val name = t.get(i);
+			if (name != null) {
+				int slot = spread(hash(name.handle)) & mask;
+				while(newTable.get(slot) != null) {
+					slot = (slot + 1) & mask;
+				}
+				newTable.set(slot, name);
+			}
+		}
+		this.table = newTable;
+	}
+
+	/**
+	 * @return position of new entry of entrySize bytes, never crossing a slab boundary
+	 */
+	private long allocate(int entrySize) {
+		long pos = appendPos;
+		val slabSize = slabMask + 1;
+		if (slabOffset(pos) + entrySize > slabSize) {
+			pos = (pos + slabSize) & ~((long) slabMask);
+		}
+		val endPos = pos + entrySize;
+		if (endPos > MAX_ARENA_SIZE) {
+			throw new IllegalStateException("arena full, size: " + pos);
+		}
+		val slabIndex = slabIndex(pos);
+		if (slabIndex >= slabs.length) {
+			val newSlabs = Arrays.copyOf(slabs, slabIndex + 1);
+			newSlabs[slabIndex] = ByteBuffer.allocateDirect(slabSize);
+			this.slabs = newSlabs;
+		}
+		val alignMask = (1 << ENTRY_ALIGN_SHIFT) - 1;
+		this.appendPos = (endPos + alignMask) & ~((long) alignMask);
+		return pos;
+	}
+
+	// read entries by handle
+	// ------------------------------------------------------------------------
+
+	private static long position(int handle) {
+		return (handle & 0xFFFFFFFFL) << ENTRY_ALIGN_SHIFT;
+	}
+
+	private int slabIndex(long pos) {
+		return (int) (pos >>> slabShift);
+	}
+
+	private int slabOffset(long pos) {
+		return (int) (pos & slabMask);
+	}
+
+	private ByteBuffer slabOf(int handle) {
+		return slabs[slabIndex(position(handle))];
+	}
+
+	private int offsetOf(int handle) {
+		return slabOffset(position(handle));
+	}
+
+	/**
+	 * @return same as String.hashCode() of name
+	 */
+	public int hash(int handle) {
+		return slabOf(handle).getInt(offsetOf(handle) + HASH_OFFSET);
+	}
+
+	public int length(int handle) {
+		return slabOf(handle).getChar(offsetOf(handle) + LENGTH_OFFSET);
+	}
+
+	public int utf8Length(int handle) {
+		return slabOf(handle).getChar(offsetOf(handle) + UTF8_LENGTH_OFFSET);
+	}
+
+	/**
+	 * @return char at index, O(1) for ascii names, O(index) otherwise
+	 */
+	public char charAt(int handle, int index) {
+		val slab = slabOf(handle);
+		val p = offsetOf(handle);
+		val length = (int) slab.getChar(p + LENGTH_OFFSET);
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+		}
+		int bytePos = p + ENTRY_HEADER_SIZE;
+		if (slab.getChar(p + UTF8_LENGTH_OFFSET) == length) {
+			return (char) slab.get(bytePos + index);
+		}
+		for(int i = 0; i < index; i++) {
+			bytePos += utfCharByteCount(slab.get(bytePos));
+		}
+		return utfCharAt(slab, bytePos);
+	}
+
+	/**
+	 * @return byte offset of first char of handle entry, in its slab, for charAtPos() and nextCharPos()
+	 */
+	public int firstCharPos(int handle) {
+		return offsetOf(handle) + ENTRY_HEADER_SIZE;
+	}
+
+	public char charAtPos(int handle, int pos) {
+		return utfCharAt(slabOf(handle), pos);
+	}
+
+	public int nextCharPos(int handle, int pos) {
+		return pos + utfCharByteCount(slabOf(handle).get(pos));
+	}
+
+	public void appendTo(int handle, StringBuilder sb) {
+		val slab = slabOf(handle);
+		val p = offsetOf(handle);
+		val length = (int) slab.getChar(p + LENGTH_OFFSET);
+		int bytePos = p + ENTRY_HEADER_SIZE;
+		for(int i = 0; i < length; i++) {
+			sb.append(utfCharAt(slab, bytePos));
+			bytePos += utfCharByteCount(slab.get(bytePos));
+		}
+	}
+
+	public String toText(int handle) {
+		val sb = new StringBuilder(length(handle));
+		appendTo(handle, sb);
+		return sb.toString();
+	}
+
+	/**
+	 * same as out.writeUTF(toText(handle)), copying stored bytes
+	 */
+	public void writeUTF(int handle, DataOutputStream out) throws IOException {
+		val slab = slabOf(handle);
+		val p = offsetOf(handle);
+		val utf8Length = (int) slab.getChar(p + UTF8_LENGTH_OFFSET);
+		out.writeShort(utf8Length);
+		for(int i = 0; i < utf8Length; i++) {
+			out.write(slab.get(p + ENTRY_HEADER_SIZE + i));
+		}
+	}
+
+	/**
+	 * @return count of bytes written by writeUTF() and writeTo()
+	 */
+	public int utfSize(int handle) {
+		return 2 + utf8Length(handle);
+	}
+
+	/**
+	 * same bytes as writeUTF(), bulk copied from the slab to out
+	 */
+	public void writeTo(int handle, ByteBuffer out) {
+		val slab = slabOf(handle);
+		val p = offsetOf(handle);
+		val utf8Length = (int) slab.getChar(p + UTF8_LENGTH_OFFSET);
+		if (out.remaining() < 2 + utf8Length) {
+			throw new BufferOverflowException();
+		}
+		out.put((byte) (utf8Length >>> 8));
+		out.put((byte) utf8Length);
+		val src = slab.duplicate();
+		src.limit(p + ENTRY_HEADER_SIZE + utf8Length);
+		src.position(p + ENTRY_HEADER_SIZE);
+		out.put(src);
+	}
+
+	public boolean contentEquals(int handle, CharSequence other, int offset, int length) {
+		val slab = slabOf(handle);
+		val p = offsetOf(handle);
+		if (slab.getChar(p + LENGTH_OFFSET) != length) {
+			return false;
+		}
+		int bytePos = p + ENTRY_HEADER_SIZE;
+		for(int i = 0; i < length; i++) {
+			if (utfCharAt(slab, bytePos) != other.charAt(offset + i)) {
+				return false;
+			}
+			bytePos += utfCharByteCount(slab.get(bytePos));
+		}
+		return true;
+	}
+
+	private boolean asciiBytesEquals(int handle, byte[] other, int offset, int length) {
+		val slab = slabOf(handle);
+		val p = offsetOf(handle);
+		if (slab.getChar(p + LENGTH_OFFSET) != length || slab.getChar(p + UTF8_LENGTH_OFFSET) != length) {
+			return false;
+		}
+		for(int i = 0; i < length; i++) {
+			if (slab.get(p + ENTRY_HEADER_SIZE + i) != other[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/** @return count of distinct names */
+	public synchronized int size() {
+		return count;
+	}
+
+	/** @return bytes used by entries, including alignment and slab end padding */
+	public synchronized long getUsedBytes() {
+		return appendPos;
+	}
+
+	/** @return off-heap bytes allocated for slabs */
+	public long getAllocatedBytes() {
+		return (long) slabs.length * (slabMask + 1);
+	}
+
+	/** @return in-heap bytes of deduplication table, and canonical ArenaNodeName instances */
+	public synchronized long getTableBytes() {
+		return 4L * table.length() + (long) count * ARENA_NODE_NAME_SIZE;
+	}
+
+	// "modified UTF-8" encoding, as DataOutput.writeUTF
+	// ------------------------------------------------------------------------
+
+	private static int utfLen(char c) {
+		if ((c >= 0x0001) && (c <= 0x007F)) {
+			return 1;
+		} else if (c > 0x07FF) {
+			return 3;
+		} else {
+			return 2;
+		}
+	}
+
+	private static int putUTFChar(ByteBuffer dest, int pos, char c) {
+		if ((c >= 0x0001) && (c <= 0x007F)) {
+			dest.put(pos++, (byte) c);
+		} else if (c > 0x07FF) {
+			dest.put(pos++, (byte) (0xE0 | ((c >> 12) & 0x0F)));
+			dest.put(pos++, (byte) (0x80 | ((c >>  6) & 0x3F)));
+			dest.put(pos++, (byte) (0x80 | ((c >>  0) & 0x3F)));
+		} else {
+			dest.put(pos++, (byte) (0xC0 | ((c >>  6) & 0x1F)));
+			dest.put(pos++, (byte) (0x80 | ((c >>  0) & 0x3F)));
+		}
+		return pos;
+	}
+
+	private static int utfCharByteCount(byte b) {
+		if (b >= 0) {
+			return 1;
+		}
+		return ((b & 0xE0) == 0xC0)? 2 : 3;
+	}
+
+	private static char utfCharAt(ByteBuffer src, int pos) {
+		val b = src.get(pos);
+		if (b >= 0) {
+			return (char) b;
+		} else if ((b & 0xE0) == 0xC0) {
+			return (char) (((b & 0x1F) << 6) | (src.get(pos + 1) & 0x3F));
+		} else {
+			return (char) (((b & 0x0F) << 12) | ((src.get(pos + 1) & 0x3F) << 6) | (src.get(pos + 2) & 0x3F));
+		}
+	}
+
+}
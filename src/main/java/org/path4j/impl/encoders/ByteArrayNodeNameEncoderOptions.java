@@ -0,0 +1,427 @@
+package org.path4j.impl.encoders;
+
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_IntSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_RefSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedArraySize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import org.path4j.NodeName;
+import org.path4j.encoder.NodeNameEncoderOption;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * compression strategy for names of any length, using a byte[] with 1 byte per ascii char,
+ * or "modified UTF-8" bytes (as DataOutput.writeUTF) for other chars,
+ * instead of "String" containing "byte[]" (or "char[]")
+ *
+ * hashCode is computed once at encoding, and stored
+ */
+public final class ByteArrayNodeNameEncoderOptions {
+
+	public static final AsciiByteArrayNodeNameEncoderOption ASCII_OPTION = new AsciiByteArrayNodeNameEncoderOption();
+	public static final Utf8ByteArrayNodeNameEncoderOption UTF8_OPTION = new Utf8ByteArrayNodeNameEncoderOption();
+
+	/** ascii option first, for choosing it when estimated sizes are equal */
+	public static final ImmutableList<NodeNameEncoderOption> DEFAULTS = ImmutableList.<NodeNameEncoderOption>of(
+			ASCII_OPTION,
+			UTF8_OPTION
+			);
+
+	public static int asciiEncoderSize(int length) {
+		return alignedObjectSize(VM_ObjectHeaderSize
+					+ VM_RefSize // for bytes
+					+ VM_IntSize) // for hash
+				+ alignedArraySize(1, length);
+	}
+
+	public static int utf8EncoderSize(int utf8Length) {
+		return alignedObjectSize(VM_ObjectHeaderSize
+					+ VM_RefSize // for bytes
+					+ VM_IntSize // for hash
+					+ VM_IntSize) // for length
+				+ alignedArraySize(1, utf8Length);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * encoder option for names of any length, with all chars in range 01-7F
+	 */
+	public static class AsciiByteArrayNodeNameEncoderOption extends NodeNameEncoderOption {
+
+		@Override
+		public boolean isSimpleCharsOnly() {
+			return true;
+		}
+
+		@Override
+		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncode((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncodePrechecked((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			val size = asciiEncoderSize(length);
+			if (size >= maxEstimatedSize) {
+				return null;
+			}
+			sizeResult.estimatedSize = size;
+			val bytes = new byte[length];
+			int h = 0;
+			for(int i = 0; i < length; i++) {
+				val ch = source.charAt(offset + i);
+				bytes[i] = (byte) ch;
+				h = 31 * h + ch;
+			}
+			return new ByteArrayNodeName(bytes, h);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			val size = asciiEncoderSize(length);
+			if (size >= maxEstimatedSize) {
+				return null;
+			}
+			sizeResult.estimatedSize = size;
+			val bytes = new byte[length];
+			int h = 0;
+			for(int i = 0; i < length; i++) {
+				val ch = source[offset + i];
+				bytes[i] = (byte) ch;
+				h = 31 * h + ch;
+			}
+			return new ByteArrayNodeName(bytes, h);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			val size = asciiEncoderSize(length);
+			if (size >= maxEstimatedSize) {
+				return null;
+			}
+			sizeResult.estimatedSize = size;
+			val bytes = Arrays.copyOfRange(source, offset, offset + length);
+			int h = 0;
+			for(int i = 0; i < length; i++) {
+				h = 31 * h + bytes[i];
+			}
+			return new ByteArrayNodeName(bytes, h);
+		}
+	}
+
+	/**
+	 * encoder option for names of any length, with any chars, stored as "modified UTF-8"
+	 */
+	public static class Utf8ByteArrayNodeNameEncoderOption extends NodeNameEncoderOption {
+
+		@Override
+		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncodePrechecked((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			if (utf8EncoderSize(length) >= maxEstimatedSize) {
+				return null; // at least 1 byte per char
+			}
+			val end = offset + length;
+			int utf8Length = 0;
+			for(int i = offset; i < end; i++) {
+				utf8Length += DataOutputUTFUtils.utfLen(source.charAt(i));
+			}
+			val size = utf8EncoderSize(utf8Length);
+			if (size >= maxEstimatedSize) {
+				return null;
+			}
+			sizeResult.estimatedSize = size;
+			val bytes = new byte[utf8Length];
+			int pos = 0;
+			int h = 0;
+			for(int i = offset; i < end; i++) {
+				val ch = source.charAt(i);
+				pos = putUTFChar(bytes, pos, ch);
+				h = 31 * h + ch;
+			}
+			return new Utf8ByteArrayNodeName(bytes, h, length);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncodePrechecked(CharBuffer.wrap(source), offset, length, maxEstimatedSize, sizeResult);
+		}
+
+		/**
+		 * @param source bytes of ISO-8859-1 chars, encoded without temporary String
+		 */
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			if (utf8EncoderSize(length) >= maxEstimatedSize) {
+				return null; // at least 1 byte per char
+			}
+			val end = offset + length;
+			int utf8Length = 0;
+			for(int i = offset; i < end; i++) {
+				utf8Length += DataOutputUTFUtils.utfLen((char) (source[i] & 0xFF));
+			}
+			val size = utf8EncoderSize(utf8Length);
+			if (size >= maxEstimatedSize) {
+				return null;
+			}
+			sizeResult.estimatedSize = size;
+			val bytes = new byte[utf8Length];
+			int pos = 0;
+			int h = 0;
+			for(int i = offset; i < end; i++) {
+				val ch = (char) (source[i] & 0xFF);
+				pos = putUTFChar(bytes, pos, ch);
+				h = 31 * h + ch;
+			}
+			return new Utf8ByteArrayNodeName(bytes, h, length);
+		}
+	}
+
+	/*pp*/ static int putUTFChar(byte[] dest, int pos, char c) {
+		if ((c >= 0x0001) && (c <= 0x007F)) {
+			dest[pos++] = (byte) c;
+		} else if (c > 0x07FF) {
+			dest[pos++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+			dest[pos++] = (byte) (0x80 | ((c >>  6) & 0x3F));
+			dest[pos++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+		} else {
+			dest[pos++] = (byte) (0xC0 | ((c >>  6) & 0x1F));
+			dest[pos++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+		}
+		return pos;
+	}
+
+	/**
+	 * @return byte count of "modified UTF-8" char starting with byte b
+	 */
+	/*pp*/ static int utfCharByteCount(byte b) {
+		if (b >= 0) {
+			return 1;
+		}
+		return ((b & 0xE0) == 0xC0)? 2 : 3;
+	}
+
+	/*pp*/ static char utfCharAt(byte[] bytes, int pos) {
+		val b = bytes[pos];
+		if (b >= 0) {
+			return (char) b;
+		} else if ((b & 0xE0) == 0xC0) {
+			return (char) (((b & 0x1F) << 6) | (bytes[pos + 1] & 0x3F));
+		} else {
+			return (char) (((b & 0x0F) << 12) | ((bytes[pos + 1] & 0x3F) << 6) | (bytes[pos + 2] & 0x3F));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * name with all chars in range 01-7F, 1 byte per char
+	 */
+	@AllArgsConstructor
+	public static class ByteArrayNodeName extends NodeName {
+
+		private final byte[] bytes;
+		private final int hash;
+
+		@Override
+		public int length() {
+			return bytes.length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) bytes[index];
+		}
+
+		@Override
+		public String toText() {
+			val len = bytes.length;
+			val chars = new char[len];
+			for(int i = 0; i < len; i++) {
+				chars[i] = (char) bytes[i];
+			}
+			return new String(chars);
+		}
+
+		@Override
+		public void writeUTF(DataOutputStream out) throws IOException {
+			if (bytes.length > 65535) {
+				super.writeUTF(out); // throws UTFDataFormatException
+				return;
+			}
+			DataOutputUTFUtils.writeUTFLen(out, bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public int utfSize() {
+			return 2 + bytes.length;
+		}
+
+		@Override
+		public void writeTo(ByteBuffer out) {
+			if (bytes.length > 65535) {
+				super.writeTo(out); // throws IllegalArgumentException
+				return;
+			}
+			checkRemaining(out, 2 + bytes.length);
+			putUTFLen(out, bytes.length);
+			out.put(bytes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj instanceof ByteArrayNodeName) {
+				val other = (ByteArrayNodeName) obj;
+				return hash == other.hash && Arrays.equals(bytes, other.bytes);
+			}
+			return super.equals(obj);
+		}
+	}
+
+	/**
+	 * name with any chars, as "modified UTF-8" bytes (1 to 3 bytes per char), and char length
+	 *
+	 * charAt(index) decodes chars from start of bytes, so is O(index):
+	 * sequential access should use appendTo() or toText(), see isRandomAccess()
+	 */
+	@AllArgsConstructor
+	public static class Utf8ByteArrayNodeName extends NodeName {
+
+		private final byte[] bytes;
+		private final int hash;
+		private final int length;
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public boolean isRandomAccess() {
+			return false;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+			}
+			int pos = 0;
+			for(int i = 0; i < index; i++) {
+				pos += utfCharByteCount(bytes[pos]);
+			}
+			return utfCharAt(bytes, pos);
+		}
+
+		@Override
+		public String toText() {
+			val chars = new char[length];
+			int pos = 0;
+			for(int i = 0; i < length; i++) {
+				chars[i] = utfCharAt(bytes, pos);
+				pos += utfCharByteCount(bytes[pos]);
+			}
+			return new String(chars);
+		}
+
+		@Override
+		public void appendTo(StringBuilder sb) {
+			int pos = 0;
+			for(int i = 0; i < length; i++) {
+				sb.append(utfCharAt(bytes, pos));
+				pos += utfCharByteCount(bytes[pos]);
+			}
+		}
+
+		@Override
+		public void writeUTF(DataOutputStream out) throws IOException {
+			if (bytes.length > 65535) {
+				super.writeUTF(out); // throws UTFDataFormatException
+				return;
+			}
+			DataOutputUTFUtils.writeUTFLen(out, bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public int utfSize() {
+			return 2 + bytes.length;
+		}
+
+		@Override
+		public void writeTo(ByteBuffer out) {
+			if (bytes.length > 65535) {
+				super.writeTo(out); // throws IllegalArgumentException
+				return;
+			}
+			checkRemaining(out, 2 + bytes.length);
+			putUTFLen(out, bytes.length);
+			out.put(bytes);
+		}
+
+		// sequential access for contentEquals() / compareTo(): positions are byte offsets
+
+		@Override
+		protected int firstCharPos() {
+			return 0;
+		}
+
+		@Override
+		protected char charAtPos(int pos) {
+			return utfCharAt(bytes, pos);
+		}
+
+		@Override
+		protected int nextCharPos(int pos) {
+			return pos + utfCharByteCount(bytes[pos]);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj instanceof Utf8ByteArrayNodeName) {
+				val other = (Utf8ByteArrayNodeName) obj;
+				return hash == other.hash && length == other.length && Arrays.equals(bytes, other.bytes);
+			}
+			if (obj instanceof NodeName) {
+				val other = (NodeName) obj;
+				return hash == other.hashCode() && contentEquals(other);
+			}
+			return false;
+		}
+	}
+
+}
@@ -1,10 +1,12 @@
 package org.path4j.impl.encoders;
 
 import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
 
 import org.path4j.NodeName;
 import org.path4j.encoder.NodeNameEncoderOption;
@@ -43,11 +45,11 @@ public final class ByteStructNodeNameEncoderOptions {
 			);
 	
 
-	protected static boolean isSimpleChar(char c) {
+	public static boolean isSimpleChar(char c) {
 		return (c >= 0x0001) && (c <= 0x007F);
 	}
 
-	protected static boolean isAllSimpleChars(String str) {
+	public static boolean isAllSimpleChars(String str) {
 		int len = str.length();
 		for(int i = 0; i < len; i++) {
 			char ch = str.charAt(i);
@@ -58,10 +60,101 @@ public final class ByteStructNodeNameEncoderOptions {
 		return true;
 	}
 
-	protected static byte simpleCharAt(String str, int i) {
+	public static boolean isAllSimpleChars(CharSequence str, int offset, int length) {
+		int end = offset + length;
+		for(int i = offset; i < end; i++) {
+			char ch = str.charAt(i);
+			if (! isSimpleChar(ch)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static boolean isAllSimpleChars(char[] str, int offset, int length) {
+		int end = offset + length;
+		for(int i = offset; i < end; i++) {
+			if (! isSimpleChar(str[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static boolean isSimpleByte(byte b) {
+		return b > 0; // range 01-7F, as signed byte
+	}
+
+	public static boolean isAllSimpleChars(byte[] str, int offset, int length) {
+		int end = offset + length;
+		for(int i = offset; i < end; i++) {
+			if (! isSimpleByte(str[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static byte simpleCharAt(CharSequence str, int i) {
 		return (byte) str.charAt(i);
 	}
+
+	protected static byte simpleCharAt(char[] str, int i) {
+		return (byte) str[i];
+	}
+
+	protected static byte simpleCharAt(byte[] str, int i) {
+		return str[i];
+	}
 	
+	// ------------------------------------------------------------------------
+
+	/**
+	 * base class for ByteN encoder options: accept only names of fixed length N, with all chars in range 01-7F
+	 */
+	public static abstract class ByteStructNodeNameEncoderOption extends NodeNameEncoderOption {
+		private final int fixedLength;
+
+		protected ByteStructNodeNameEncoderOption(int fixedLength) {
+			this.fixedLength = fixedLength;
+		}
+
+		@Override
+		public int getFixedLength() {
+			return fixedLength;
+		}
+
+		@Override
+		public boolean isSimpleCharsOnly() {
+			return true;
+		}
+
+		@Override
+		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			if (name.length() != fixedLength) {
+				return null;
+			}
+			if (! isAllSimpleChars(name)) {
+				return null;
+			}
+			return tryEncodePrechecked(name, maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncodePrechecked((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public abstract NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult);
+
+		@Override
+		public abstract NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult);
+
+		@Override
+		public abstract NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult);
+	}
+
 	// ------------------------------------------------------------------------
 	
 	public static abstract class ByteStructNodeName extends NodeName {
@@ -81,7 +174,11 @@ public final class ByteStructNodeNameEncoderOptions {
 			out.append((char) ch3);
 		}
 	
-		protected static int hashCode4(Byte ch0, byte ch1, byte ch2, byte ch3) {
+		/** 31^4 and 31^8, for folding hashCode of char groups, same as String.hashCode() */
+		protected static final int PRIME_POW4 = 923521;
+		protected static final int PRIME_POW8 = -1807454463;
+
+		protected static int hashCode4(byte ch0, byte ch1, byte ch2, byte ch3) {
 			final int prime = 31;
 			return ((ch0 * prime + ch1) * prime + ch2) * prime + ch3;
 		}
@@ -109,15 +206,18 @@ public final class ByteStructNodeNameEncoderOptions {
 			out.append((char) ch7);
 		}
 	
-		protected static int hashCode8(Byte ch0, byte ch1, byte ch2, byte ch3, byte ch4, byte ch5, byte ch6, byte ch7) {
-			final int prime = 31;
-			return hashCode4(ch0, ch1, ch2, ch3) * prime + hashCode4(ch4, ch5, ch6, ch7);
+		protected static int hashCode8(byte ch0, byte ch1, byte ch2, byte ch3, byte ch4, byte ch5, byte ch6, byte ch7) {
+			return hashCode4(ch0, ch1, ch2, ch3) * PRIME_POW4 + hashCode4(ch4, ch5, ch6, ch7);
 		}
 	
-		protected static int hashCode12(Byte ch0, byte ch1, byte ch2, byte ch3, byte ch4, byte ch5, byte ch6, byte ch7,
-				Byte ch8, byte ch9, byte ch10, byte ch11) {
-			final int prime = 31;
-			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + hashCode4(ch8, ch9, ch10, ch11);
+		protected static int hashCode12(byte ch0, byte ch1, byte ch2, byte ch3, byte ch4, byte ch5, byte ch6, byte ch7,
+				byte ch8, byte ch9, byte ch10, byte ch11) {
+			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * PRIME_POW4 + hashCode4(ch8, ch9, ch10, ch11);
+		}
+
+		protected static int hashCode16(byte ch0, byte ch1, byte ch2, byte ch3, byte ch4, byte ch5, byte ch6, byte ch7, byte ch8, byte ch9, byte ch10, byte ch11, 
+				byte ch12, byte ch13, byte ch14, byte ch15) {
+			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * PRIME_POW8 + hashCode8(ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
 		}
 	
 		
@@ -150,11 +250,37 @@ public final class ByteStructNodeNameEncoderOptions {
 			out.write(c7);
 		}
 		
-		protected abstract int len();
+		protected static void putUTFChar(ByteBuffer out, byte c) {
+			out.put(c);
+		}
+		protected static void putUTFChar2(ByteBuffer out, byte c0, byte c1) {
+			out.put(c0);
+			out.put(c1);
+		}
+		protected static void putUTFChar3(ByteBuffer out, byte c0, byte c1, byte c2) {
+			out.put(c0);
+			out.put(c1);
+			out.put(c2);
+		}
+		protected static void putUTFChar4(ByteBuffer out, byte c0, byte c1, byte c2, byte c3) {
+			putBigEndianInt(out, (c0 << 24) | (c1 << 16) | (c2 << 8) | c3);
+		}
+		protected static void putUTFChar8(ByteBuffer out, byte c0, byte c1, byte c2, byte c3, byte c4, byte c5, byte c6, byte c7) {
+			putBigEndianLong(out, ((long) ((c0 << 24) | (c1 << 16) | (c2 << 8) | c3) << 32) 
+					| ((c4 << 24) | (c5 << 16) | (c6 << 8) | c7));
+		}
+
+		/**
+		 * all chars are in range 01-7F: 1 byte per char
+		 */
+		@Override
+		public int utfSize() {
+			return 2 + length();
+		}
 		
 		@Override
 		public final String toText() {
-			val sb = new StringBuilder(len());
+			val sb = new StringBuilder(length());
 			appendTo(sb);
 			return sb.toString();
 		}
@@ -167,10 +293,18 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch0;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 1;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 1");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			out.append((char) ch0);
@@ -187,6 +321,13 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar(out, ch0);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 1);
+			putUTFLen(out, 1);
+			putUTFChar(out, ch0);
+		}
+
 		@Override
 		public int hashCode() {
 			return ch0;
@@ -196,7 +337,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte1NodeName other = (Byte1NodeName) obj;
 				return ch0 == other.ch0;
 			} else {
@@ -206,19 +347,29 @@ public final class ByteStructNodeNameEncoderOptions {
 
 	}
 	
-	public static class Byte1NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 1; // + VM_Padding7Size
+	public static class Byte1NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 1);
 		
+		public Byte1NodeNameEncoderOption() {
+			super(1);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 1) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte1NodeName(simpleCharAt(source, offset));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte1NodeName(simpleCharAt(source, offset));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte1NodeName(simpleCharAt(name, 0));
+			return new Byte1NodeName(simpleCharAt(source, offset));
 		}
 	}
 
@@ -230,10 +381,19 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch1;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 2;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 2");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			out.append((char) ch0);
@@ -252,6 +412,13 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar2(out, ch0, ch1);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 2);
+			putUTFLen(out, 2);
+			putUTFChar2(out, ch0, ch1);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -262,7 +429,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte2NodeName other = (Byte2NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1;
 			} else {
@@ -272,19 +439,29 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte2NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 2; // + VM_Padding6Size
+	public static class Byte2NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 2);
 		
+		public Byte2NodeNameEncoderOption() {
+			super(2);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 2) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte2NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1));
+			return new Byte2NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte2NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte2NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1));
 		}
 	}
 
@@ -297,10 +474,20 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch2;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 3;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 3");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			out.append((char) ch0);
@@ -321,6 +508,13 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar3(out, ch0, ch1, ch2);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 3);
+			putUTFLen(out, 3);
+			putUTFChar3(out, ch0, ch1, ch2);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -331,7 +525,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte3NodeName other = (Byte3NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2;
 			} else {
@@ -347,19 +541,29 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte3NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 3;
+	public static class Byte3NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 3);
 		
+		public Byte3NodeNameEncoderOption() {
+			super(3);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 3) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte3NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte3NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte3NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2));
+			return new Byte3NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2));
 		}
 	}
 	
@@ -374,10 +578,21 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch3;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 4;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 4");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -394,6 +609,13 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar4(out, ch0, ch1, ch2, ch3);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 4);
+			putUTFLen(out, 4);
+			putUTFChar4(out, ch0, ch1, ch2, ch3);
+		}
+
 		@Override
 		public int hashCode() {
 			return hashCode4(ch0, ch1, ch2, ch3);
@@ -403,7 +625,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte4NodeName p = (Byte4NodeName) obj;
 				return ch0 == p.ch0 && ch1 == p.ch1 && ch2 == p.ch2 && ch3 == p.ch3;
 			} else {
@@ -413,19 +635,29 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte4NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 4;
+	public static class Byte4NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 4);
 		
+		public Byte4NodeNameEncoderOption() {
+			super(4);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 4) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte4NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3));
+			return new Byte4NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte4NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte4NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3));
 		}
 	}
 
@@ -440,10 +672,22 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch4;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 5;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 5");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -463,17 +707,26 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar(out, ch4);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 5);
+			putUTFLen(out, 5);
+			putUTFChar4(out, ch0, ch1, ch2, ch3);
+			putUTFChar(out, ch4);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return hashCode4(ch0, ch1, ch2, ch3) * prime + ch4;
+			int h = hashCode4(ch0, ch1, ch2, ch3);
+			return h * prime + ch4;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte5NodeName p = (Byte5NodeName) obj;
 				return ch0 == p.ch0 && ch1 == p.ch1 && ch2 == p.ch2 && ch3 == p.ch3
 						&& ch4 == p.ch4;
@@ -484,19 +737,29 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte5NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 5;
+	public static class Byte5NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 5);
 		
+		public Byte5NodeNameEncoderOption() {
+			super(5);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 5) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte5NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), simpleCharAt(name, 4));
+			return new Byte5NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), simpleCharAt(source, offset + 4));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte5NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), simpleCharAt(source, offset + 4));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte5NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), simpleCharAt(source, offset + 4));
 		}
 	}
 
@@ -512,10 +775,23 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch5;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 6;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 6");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -537,17 +813,26 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar2(out, ch4, ch5);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 6);
+			putUTFLen(out, 6);
+			putUTFChar4(out, ch0, ch1, ch2, ch3);
+			putUTFChar2(out, ch4, ch5);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode4(ch0, ch1, ch2, ch3) * prime + ch4) * prime + ch5;
+			int h = hashCode4(ch0, ch1, ch2, ch3);
+			return (h * prime + ch4) * prime + ch5;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte6NodeName other = (Byte6NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3
 						&& ch4 == other.ch4 && ch5 == other.ch5;
@@ -558,20 +843,32 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte6NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 6;
+	public static class Byte6NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 6);
 		
+		public Byte6NodeNameEncoderOption() {
+			super(6);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 6) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte6NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), 
-					simpleCharAt(name, 4), simpleCharAt(name, 5));
+			return new Byte6NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte6NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte6NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5));
 		}
 	}
 
@@ -589,10 +886,24 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch6;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 7;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 7");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -616,17 +927,26 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar3(out, ch4, ch5, ch6);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 7);
+			putUTFLen(out, 7);
+			putUTFChar4(out, ch0, ch1, ch2, ch3);
+			putUTFChar3(out, ch4, ch5, ch6);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return ((hashCode4(ch0, ch1, ch2, ch3) * prime + ch4) * prime + ch5) * prime + ch6;
+			int h = hashCode4(ch0, ch1, ch2, ch3);
+			return ((h * prime + ch4) * prime + ch5) * prime + ch6;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte7NodeName other = (Byte7NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6;
@@ -637,22 +957,33 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte7NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 7
-					;
+	public static class Byte7NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 7);
 		
+		public Byte7NodeNameEncoderOption() {
+			super(7);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 7) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte7NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte7NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6));
+			return new Byte7NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte7NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6));
 		}
 	}
 
@@ -670,10 +1001,25 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch7;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 8;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 8");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -690,6 +1036,13 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 8);
+			putUTFLen(out, 8);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+		}
+
 		@Override
 		public int hashCode() {
 			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -699,7 +1052,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte8NodeName other = (Byte8NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7;
@@ -710,20 +1063,32 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte8NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 8;
+	public static class Byte8NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 8);
 		
+		public Byte8NodeNameEncoderOption() {
+			super(8);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 8) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte8NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7));
+			return new Byte8NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte8NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte8NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7));
 		}
 	}
 
@@ -742,10 +1107,26 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch8;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 9;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 9");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -765,17 +1146,26 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar(out, ch8);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 9);
+			putUTFLen(out, 9);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar(out, ch8);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + ch8;
+			int h = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			return h * prime + ch8;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte9NodeName other = (Byte9NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -787,21 +1177,35 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte9NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 9;
+	public static class Byte9NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 9);
 		
+		public Byte9NodeNameEncoderOption() {
+			super(9);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 9) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte9NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte9NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte9NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8));
+			return new Byte9NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8));
 		}
 	}
 
@@ -822,10 +1226,27 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch9;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 10;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 10");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -847,17 +1268,26 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar2(out, ch8, ch9);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 10);
+			putUTFLen(out, 10);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar2(out, ch8, ch9);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + ch8) * prime + ch9;
+			int h = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			return (h * prime + ch8) * prime + ch9;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte10NodeName other = (Byte10NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -869,21 +1299,35 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte10NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 10;
+	public static class Byte10NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 10);
 		
+		public Byte10NodeNameEncoderOption() {
+			super(10);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 10) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte10NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte10NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9));
+			return new Byte10NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte10NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9));
 		}
 	}
 
@@ -904,10 +1348,28 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch10;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 11;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			case 10: return (char) ch10;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 11");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -931,17 +1393,26 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar3(out, ch8, ch9, ch10);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 11);
+			putUTFLen(out, 11);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar3(out, ch8, ch9, ch10);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return ((hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + ch8) * prime + ch9) * ch10;
+			int h = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			return ((h * prime + ch8) * prime + ch9) * prime + ch10;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte11NodeName other = (Byte11NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -953,21 +1424,35 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte11NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 11;
+	public static class Byte11NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 11);
 		
+		public Byte11NodeNameEncoderOption() {
+			super(11);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 11) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte11NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9), simpleCharAt(name, 10));
+			return new Byte11NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte11NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte11NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10));
 		}
 	}
 
@@ -989,10 +1474,29 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch11;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 12;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			case 10: return (char) ch10;
+			case 11: return (char) ch11;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 12");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1012,6 +1516,14 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar4(out, ch8, ch9, ch10, ch11);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 12);
+			putUTFLen(out, 12);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar4(out, ch8, ch9, ch10, ch11);
+		}
+
 		@Override
 		public int hashCode() {
 			return hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
@@ -1021,7 +1533,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte12NodeName other = (Byte12NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1033,21 +1545,35 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte12NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 12;
+	public static class Byte12NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 12);
 		
+		public Byte12NodeNameEncoderOption() {
+			super(12);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 12) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte12NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte12NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte12NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9), simpleCharAt(name, 10), simpleCharAt(name, 11));
+			return new Byte12NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11));
 		}
 	}
 
@@ -1070,10 +1596,30 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch12;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 13;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			case 10: return (char) ch10;
+			case 11: return (char) ch11;
+			case 12: return (char) ch12;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 13");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1096,17 +1642,27 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar(out, ch12);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 13);
+			putUTFLen(out, 13);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar4(out, ch8, ch9, ch10, ch11);
+			putUTFChar(out, ch12);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + hashCode4(ch8, ch9, ch10, ch11)) * prime + ch12;
+			int h = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
+			return h * prime + ch12;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte13NodeName other = (Byte13NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1119,22 +1675,38 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte13NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 13;
+	public static class Byte13NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 13);
 		
+		public Byte13NodeNameEncoderOption() {
+			super(13);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 13) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte13NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11),
+					simpleCharAt(source, offset + 12));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte13NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9), simpleCharAt(name, 10), simpleCharAt(name, 11),
-					simpleCharAt(name, 12));
+			return new Byte13NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11),
+					simpleCharAt(source, offset + 12));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte13NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11),
+					simpleCharAt(source, offset + 12));
 		}
 	}
 
@@ -1158,10 +1730,31 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch13;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 14;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			case 10: return (char) ch10;
+			case 11: return (char) ch11;
+			case 12: return (char) ch12;
+			case 13: return (char) ch13;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 14");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1186,10 +1779,20 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar2(out, ch12, ch13);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 14);
+			putUTFLen(out, 14);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar4(out, ch8, ch9, ch10, ch11);
+			putUTFChar2(out, ch12, ch13);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11) * prime + ch12) * prime + ch13;
+			int h = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
+			return (h * prime + ch12) * prime + ch13;
 		}
 			
 
@@ -1197,7 +1800,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte14NodeName other = (Byte14NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1210,22 +1813,38 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte14NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 14;
+	public static class Byte14NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 14);
 		
+		public Byte14NodeNameEncoderOption() {
+			super(14);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 14) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte14NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9), simpleCharAt(name, 10), simpleCharAt(name, 11), //
-					simpleCharAt(name, 12), simpleCharAt(name, 13));
+			return new Byte14NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte14NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte14NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13));
 		}
 	}
 
@@ -1251,10 +1870,32 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch14;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 15;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			case 10: return (char) ch10;
+			case 11: return (char) ch11;
+			case 12: return (char) ch12;
+			case 13: return (char) ch13;
+			case 14: return (char) ch14;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 15");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1281,11 +1922,20 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar3(out, ch12, ch13, ch14);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 15);
+			putUTFLen(out, 15);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar4(out, ch8, ch9, ch10, ch11);
+			putUTFChar3(out, ch12, ch13, ch14);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			int hash12 = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
-			return ((hash12 * prime + ch12) * prime + ch13) * prime + ch14;
+			int h = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
+			return ((h * prime + ch12) * prime + ch13) * prime + ch14;
 		}
 			
 
@@ -1293,7 +1943,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte15NodeName other = (Byte15NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1306,22 +1956,38 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte15NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 15;
+	public static class Byte15NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 15);
 		
+		public Byte15NodeNameEncoderOption() {
+			super(15);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 15) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte15NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13), simpleCharAt(source, offset + 14));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte15NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13), simpleCharAt(source, offset + 14));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte15NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9), simpleCharAt(name, 10), simpleCharAt(name, 11), //
-					simpleCharAt(name, 12), simpleCharAt(name, 13), simpleCharAt(name, 14));
+			return new Byte15NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13), simpleCharAt(source, offset + 14));
 		}
 	}
 
@@ -1348,10 +2014,33 @@ public final class ByteStructNodeNameEncoderOptions {
 		public final byte ch15;
 
 		@Override
-		protected int len() {
+		public int length() {
 			return 16;
 		}
 
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return (char) ch0;
+			case 1: return (char) ch1;
+			case 2: return (char) ch2;
+			case 3: return (char) ch3;
+			case 4: return (char) ch4;
+			case 5: return (char) ch5;
+			case 6: return (char) ch6;
+			case 7: return (char) ch7;
+			case 8: return (char) ch8;
+			case 9: return (char) ch9;
+			case 10: return (char) ch10;
+			case 11: return (char) ch11;
+			case 12: return (char) ch12;
+			case 13: return (char) ch13;
+			case 14: return (char) ch14;
+			case 15: return (char) ch15;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 16");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1371,12 +2060,17 @@ public final class ByteStructNodeNameEncoderOptions {
 			writeUTFChar8(out, ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			checkRemaining(out, 2 + 16);
+			putUTFLen(out, 16);
+			putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			putUTFChar8(out, ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
+		}
+
 		@Override
 		public int hashCode() {
-			final int prime = 31;
-			int hash1 = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
-			int hash2 = hashCode8(ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
-			return hash1 * prime + hash2;
+			return hashCode16(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
 		}
 			
 
@@ -1384,7 +2078,7 @@ public final class ByteStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Byte16NodeName other = (Byte16NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1397,22 +2091,38 @@ public final class ByteStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Byte16NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize + 16;
+	public static class Byte16NodeNameEncoderOption extends ByteStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize + 16);
 		
+		public Byte16NodeNameEncoderOption() {
+			super(16);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 16) {
-				return null;
-			}
-			if (! isAllSimpleChars(name)) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte16NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13), simpleCharAt(source, offset + 14), simpleCharAt(source, offset + 15));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Byte16NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13), simpleCharAt(source, offset + 14), simpleCharAt(source, offset + 15));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Byte16NodeName(simpleCharAt(name, 0), simpleCharAt(name, 1), simpleCharAt(name, 2), simpleCharAt(name, 3), // 
-					simpleCharAt(name, 4), simpleCharAt(name, 5), simpleCharAt(name, 6), simpleCharAt(name, 7), //
-					simpleCharAt(name, 8), simpleCharAt(name, 9), simpleCharAt(name, 10), simpleCharAt(name, 11), //
-					simpleCharAt(name, 12), simpleCharAt(name, 13), simpleCharAt(name, 14), simpleCharAt(name, 15));
+			return new Byte16NodeName(simpleCharAt(source, offset), simpleCharAt(source, offset + 1), simpleCharAt(source, offset + 2), simpleCharAt(source, offset + 3), // 
+					simpleCharAt(source, offset + 4), simpleCharAt(source, offset + 5), simpleCharAt(source, offset + 6), simpleCharAt(source, offset + 7), //
+					simpleCharAt(source, offset + 8), simpleCharAt(source, offset + 9), simpleCharAt(source, offset + 10), simpleCharAt(source, offset + 11), //
+					simpleCharAt(source, offset + 12), simpleCharAt(source, offset + 13), simpleCharAt(source, offset + 14), simpleCharAt(source, offset + 15));
 		}
 	}
 	
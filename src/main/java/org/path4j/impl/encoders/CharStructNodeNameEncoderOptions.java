@@ -2,10 +2,12 @@ package org.path4j.impl.encoders;
 
 import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_CharSize;
 import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
 
 import org.path4j.NodeName;
 import org.path4j.encoder.NodeNameEncoderOption;
@@ -43,6 +45,53 @@ public final class CharStructNodeNameEncoderOptions {
 			);
 	
 
+	/**
+	 * @return char of ISO-8859-1 encoded byte
+	 */
+	protected static char latin1CharAt(byte[] str, int i) {
+		return (char) (str[i] & 0xFF);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * base class for CharN encoder options: accept only names of fixed length N
+	 */
+	public static abstract class CharStructNodeNameEncoderOption extends NodeNameEncoderOption {
+		private final int fixedLength;
+
+		protected CharStructNodeNameEncoderOption(int fixedLength) {
+			this.fixedLength = fixedLength;
+		}
+
+		@Override
+		public int getFixedLength() {
+			return fixedLength;
+		}
+
+		@Override
+		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			if (name.length() != fixedLength) {
+				return null;
+			}
+			return tryEncodePrechecked(name, maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncodePrechecked((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public abstract NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult);
+
+		@Override
+		public abstract NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult);
+
+		@Override
+		public abstract NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult);
+	}
+
 	// ------------------------------------------------------------------------
 	
 	@AllArgsConstructor
@@ -54,6 +103,19 @@ public final class CharStructNodeNameEncoderOptions {
 			return String.valueOf(ch0);
 		}
 
+		@Override
+		public int length() {
+			return 1;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 1");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			out.append(ch0);
@@ -71,6 +133,14 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar(out, ch0);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen(ch0);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar(out, ch0);
+		}
+
 		@Override
 		public int hashCode() {
 			return ch0;
@@ -80,7 +150,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char1NodeName other = (Char1NodeName) obj;
 				return ch0 == other.ch0;
 			} else {
@@ -90,18 +160,30 @@ public final class CharStructNodeNameEncoderOptions {
 
 	}
 	
-	public static class Char1NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ VM_CharSize // + VM_Padding6Size
-					;
+	public static class Char1NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ VM_CharSize);
 		
+		public Char1NodeNameEncoderOption() {
+			super(1);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 1) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char1NodeName(name.charAt(0));
+			return new Char1NodeName(source.charAt(offset));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char1NodeName(source[offset]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char1NodeName(latin1CharAt(source, offset));
 		}
 	}
 
@@ -117,6 +199,20 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1;
 		}
 
+		@Override
+		public int length() {
+			return 2;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 2");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			out.append(ch0);
@@ -136,6 +232,14 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar2(out, ch0, ch1);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen2(ch0, ch1);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar2(out, ch0, ch1);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -146,7 +250,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char2NodeName other = (Char2NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1;
 			} else {
@@ -156,18 +260,30 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char2NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 2 * VM_CharSize // + VM_Padding4Size
-					;
+	public static class Char2NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 2 * VM_CharSize);
 		
+		public Char2NodeNameEncoderOption() {
+			super(2);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 2) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char2NodeName(name.charAt(0), name.charAt(1));
+			return new Char2NodeName(source.charAt(offset), source.charAt(offset + 1));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char2NodeName(source[offset], source[offset + 1]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char2NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1));
 		}
 	}
 
@@ -184,6 +300,21 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2;
 		}
 
+		@Override
+		public int length() {
+			return 3;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 3");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			out.append(ch0);
@@ -205,6 +336,14 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar3(out, ch0, ch1, ch2);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen3(ch0, ch1, ch2);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar3(out, ch0, ch1, ch2);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -215,7 +354,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char3NodeName other = (Char3NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2;
 			} else {
@@ -231,18 +370,30 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char3NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 3 * VM_CharSize
-					;
+	public static class Char3NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 3 * VM_CharSize);
 		
+		public Char3NodeNameEncoderOption() {
+			super(3);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 3) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char3NodeName(name.charAt(0), name.charAt(1), name.charAt(2));
+			return new Char3NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char3NodeName(source[offset], source[offset + 1], source[offset + 2]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char3NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2));
 		}
 	}
 
@@ -262,6 +413,10 @@ public final class CharStructNodeNameEncoderOptions {
 		out.append(ch3);
 	}
 
+	/** 31^4 and 31^8, for folding hashCode of char groups, same as String.hashCode() */
+	private static final int PRIME_POW4 = 923521;
+	private static final int PRIME_POW8 = -1807454463;
+
 	private static int hashCode4(char ch0, char ch1, char ch2, char ch3) {
 		final int prime = 31;
 		return ((ch0 * prime + ch1) * prime + ch2) * prime + ch3;
@@ -291,14 +446,17 @@ public final class CharStructNodeNameEncoderOptions {
 	}
 
 	private static int hashCode8(char ch0, char ch1, char ch2, char ch3, char ch4, char ch5, char ch6, char ch7) {
-		final int prime = 31;
-		return hashCode4(ch0, ch1, ch2, ch3) * prime + hashCode4(ch4, ch5, ch6, ch7);
+		return hashCode4(ch0, ch1, ch2, ch3) * PRIME_POW4 + hashCode4(ch4, ch5, ch6, ch7);
 	}
 
 	private static int hashCode12(char ch0, char ch1, char ch2, char ch3, char ch4, char ch5, char ch6, char ch7,
 			char ch8, char ch9, char ch10, char ch11) {
-		final int prime = 31;
-		return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + hashCode4(ch8, ch9, ch10, ch11);
+		return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * PRIME_POW4 + hashCode4(ch8, ch9, ch10, ch11);
+	}
+
+	private static int hashCode16(char ch0, char ch1, char ch2, char ch3, char ch4, char ch5, char ch6, char ch7, char ch8, char ch9, char ch10, char ch11, 
+			char ch12, char ch13, char ch14, char ch15) {
+		return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * PRIME_POW8 + hashCode8(ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
 	}
 
 	
@@ -317,6 +475,22 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3;
 		}
 
+		@Override
+		public int length() {
+			return 4;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 4");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -334,6 +508,14 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar4(out, ch0, ch1, ch2, ch3);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen4(ch0, ch1, ch2, ch3);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar4(out, ch0, ch1, ch2, ch3);
+		}
+
 		@Override
 		public int hashCode() {
 			return hashCode4(ch0, ch1, ch2, ch3);
@@ -343,7 +525,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char4NodeName p = (Char4NodeName) obj;
 				return ch0 == p.ch0 && ch1 == p.ch1 && ch2 == p.ch2 && ch3 == p.ch3;
 			} else {
@@ -353,18 +535,30 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char4NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 4 * VM_CharSize
-					;
+	public static class Char4NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 4 * VM_CharSize);
 		
+		public Char4NodeNameEncoderOption() {
+			super(4);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 4) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char4NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3));
+			return new Char4NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char4NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char4NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3));
 		}
 	}
 
@@ -383,6 +577,23 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4;
 		}
 
+		@Override
+		public int length() {
+			return 5;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 5");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -403,17 +614,27 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar(out, ch4);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen4(ch0, ch1, ch2, ch3) + DataOutputUTFUtils.utfLen(ch4);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar4(out, ch0, ch1, ch2, ch3);
+			DataOutputUTFUtils.putUTFChar(out, ch4);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return hashCode4(ch0, ch1, ch2, ch3) * prime + ch4;
+			int h = hashCode4(ch0, ch1, ch2, ch3);
+			return h * prime + ch4;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char5NodeName p = (Char5NodeName) obj;
 				return ch0 == p.ch0 && ch1 == p.ch1 && ch2 == p.ch2 && ch3 == p.ch3
 						&& ch4 == p.ch4;
@@ -424,18 +645,30 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char5NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 5 * VM_CharSize
-					;
+	public static class Char5NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 5 * VM_CharSize);
 		
+		public Char5NodeNameEncoderOption() {
+			super(5);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 5) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char5NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), name.charAt(4));
+			return new Char5NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), source.charAt(offset + 4));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char5NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], source[offset + 4]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char5NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), latin1CharAt(source, offset + 4));
 		}
 	}
 
@@ -455,6 +688,24 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5;
 		}
 
+		@Override
+		public int length() {
+			return 6;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 6");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -478,17 +729,28 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar2(out, ch4, ch5);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen4(ch0, ch1, ch2, ch3)
+					+ DataOutputUTFUtils.utfLen2(ch4, ch5);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar4(out, ch0, ch1, ch2, ch3);
+			DataOutputUTFUtils.putUTFChar2(out, ch4, ch5);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode4(ch0, ch1, ch2, ch3) * prime + ch4) * prime + ch5;
+			int h = hashCode4(ch0, ch1, ch2, ch3);
+			return (h * prime + ch4) * prime + ch5;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char6NodeName other = (Char6NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3
 						&& ch4 == other.ch4 && ch5 == other.ch5;
@@ -499,19 +761,33 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char6NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 6 * VM_CharSize
-					;
+	public static class Char6NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 6 * VM_CharSize);
 		
+		public Char6NodeNameEncoderOption() {
+			super(6);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 6) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char6NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), 
+					source.charAt(offset + 4), source.charAt(offset + 5));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char6NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], 
+					source[offset + 4], source[offset + 5]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char6NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), 
-					name.charAt(4), name.charAt(5));
+			return new Char6NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5));
 		}
 	}
 
@@ -533,6 +809,25 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6;
 		}
 
+		@Override
+		public int length() {
+			return 7;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 7");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo4(out, ch0, ch1, ch2, ch3);
@@ -558,17 +853,28 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar3(out, ch4, ch5, ch6);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen4(ch0, ch1, ch2, ch3)
+					+ DataOutputUTFUtils.utfLen3(ch4, ch5, ch6);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar4(out, ch0, ch1, ch2, ch3);
+			DataOutputUTFUtils.putUTFChar3(out, ch4, ch5, ch6);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return ((hashCode4(ch0, ch1, ch2, ch3) * prime + ch4) * prime + ch5) * prime + ch6;
+			int h = hashCode4(ch0, ch1, ch2, ch3);
+			return ((h * prime + ch4) * prime + ch5) * prime + ch6;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char7NodeName other = (Char7NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6;
@@ -579,19 +885,33 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char7NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 7 * VM_CharSize
-					;
+	public static class Char7NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 7 * VM_CharSize);
 		
+		public Char7NodeNameEncoderOption() {
+			super(7);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 7) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char7NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), 
-					name.charAt(4), name.charAt(5), name.charAt(6));
+			return new Char7NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char7NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], 
+					source[offset + 4], source[offset + 5], source[offset + 6]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char7NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6));
 		}
 	}
 
@@ -613,6 +933,26 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7;
 		}
 
+		@Override
+		public int length() {
+			return 8;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 8");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -630,6 +970,14 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+		}
+
 		@Override
 		public int hashCode() {
 			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -639,7 +987,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char8NodeName other = (Char8NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7;
@@ -650,19 +998,33 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char8NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 8 * VM_CharSize
-					;
+	public static class Char8NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 8 * VM_CharSize);
 		
+		public Char8NodeNameEncoderOption() {
+			super(8);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 8) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char8NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char8NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char8NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7));
+			return new Char8NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7));
 		}
 	}
 
@@ -685,6 +1047,27 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8;
 		}
 
+		@Override
+		public int length() {
+			return 9;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 9");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -706,17 +1089,28 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar(out, ch8);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7)
+					+ DataOutputUTFUtils.utfLen(ch8);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar(out, ch8);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + ch8;
+			int h = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			return h * prime + ch8;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char9NodeName other = (Char9NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -728,20 +1122,36 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char9NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 9 * VM_CharSize
-					;
+	public static class Char9NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 9 * VM_CharSize);
 		
+		public Char9NodeNameEncoderOption() {
+			super(9);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 9) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char9NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8));
+			return new Char9NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char9NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char9NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8));
 		}
 	}
 
@@ -766,6 +1176,28 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9;
 		}
 
+		@Override
+		public int length() {
+			return 10;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 10");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -789,17 +1221,28 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar2(out, ch8, ch9);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7)
+					+ DataOutputUTFUtils.utfLen2(ch8, ch9);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar2(out, ch8, ch9);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + ch8) * prime + ch9;
+			int h = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			return (h * prime + ch8) * prime + ch9;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char10NodeName other = (Char10NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -811,20 +1254,36 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char10NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 10 * VM_CharSize
-					;
+	public static class Char10NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 10 * VM_CharSize);
 		
+		public Char10NodeNameEncoderOption() {
+			super(10);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 10) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char10NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9));
+			return new Char10NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char10NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char10NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9));
 		}
 	}
 
@@ -849,6 +1308,29 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9 + ch10;
 		}
 
+		@Override
+		public int length() {
+			return 11;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			case 10: return ch10;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 11");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -874,17 +1356,28 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar3(out, ch8, ch9, ch10);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7)
+					+ DataOutputUTFUtils.utfLen3(ch8, ch9, ch10);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar3(out, ch8, ch9, ch10);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return ((hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + ch8) * prime + ch9) * ch10;
+			int h = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			return ((h * prime + ch8) * prime + ch9) * prime + ch10;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char11NodeName other = (Char11NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -896,20 +1389,36 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char11NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 11 * VM_CharSize
-					;
+	public static class Char11NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 11 * VM_CharSize);
 		
+		public Char11NodeNameEncoderOption() {
+			super(11);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 11) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char11NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9), source.charAt(offset + 10));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char11NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9), name.charAt(10));
+			return new Char11NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9], source[offset + 10]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char11NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9), latin1CharAt(source, offset + 10));
 		}
 	}
 
@@ -935,6 +1444,30 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9 + ch10 + ch11;
 		}
 
+		@Override
+		public int length() {
+			return 12;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			case 10: return ch10;
+			case 11: return ch11;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 12");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -956,6 +1489,16 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar4(out, ch8, ch9, ch10, ch11);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7)
+					+ DataOutputUTFUtils.utfLen4(ch8, ch9, ch10, ch11);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar4(out, ch8, ch9, ch10, ch11);
+		}
+
 		@Override
 		public int hashCode() {
 			return hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
@@ -965,7 +1508,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char12NodeName other = (Char12NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -977,20 +1520,36 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char12NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 12 * VM_CharSize
-					;
+	public static class Char12NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 12 * VM_CharSize);
 		
+		public Char12NodeNameEncoderOption() {
+			super(12);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 12) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char12NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9), source.charAt(offset + 10), source.charAt(offset + 11));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char12NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9], source[offset + 10], source[offset + 11]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char12NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9), name.charAt(10), name.charAt(11));
+			return new Char12NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9), latin1CharAt(source, offset + 10), latin1CharAt(source, offset + 11));
 		}
 	}
 
@@ -1017,6 +1576,31 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9 + ch10 + ch11 + ch12;
 		}
 
+		@Override
+		public int length() {
+			return 13;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			case 10: return ch10;
+			case 11: return ch11;
+			case 12: return ch12;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 13");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1042,17 +1626,30 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar(out, ch12);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) 
+					+ DataOutputUTFUtils.utfLen4(ch8, ch9, ch10, ch11)
+					+ DataOutputUTFUtils.utfLen(ch12);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar4(out, ch8, ch9, ch10, ch11);
+			DataOutputUTFUtils.putUTFChar(out, ch12);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) * prime + hashCode4(ch8, ch9, ch10, ch11)) * prime + ch12;
+			int h = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
+			return h * prime + ch12;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char13NodeName other = (Char13NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1065,21 +1662,39 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char13NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 13 * VM_CharSize
-					;
+	public static class Char13NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 13 * VM_CharSize);
 		
+		public Char13NodeNameEncoderOption() {
+			super(13);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 13) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char13NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9), source.charAt(offset + 10), source.charAt(offset + 11),
+					source.charAt(offset + 12));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char13NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9], source[offset + 10], source[offset + 11],
+					source[offset + 12]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char13NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9), name.charAt(10), name.charAt(11),
-					name.charAt(12));
+			return new Char13NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9), latin1CharAt(source, offset + 10), latin1CharAt(source, offset + 11),
+					latin1CharAt(source, offset + 12));
 		}
 	}
 
@@ -1107,6 +1722,32 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9 + ch10 + ch11 + ch12 + ch13;
 		}
 
+		@Override
+		public int length() {
+			return 14;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			case 10: return ch10;
+			case 11: return ch11;
+			case 12: return ch12;
+			case 13: return ch13;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 14");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1134,10 +1775,23 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar2(out, ch12, ch13);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) 
+					+ DataOutputUTFUtils.utfLen4(ch8, ch9, ch10, ch11)
+					+ DataOutputUTFUtils.utfLen2(ch12, ch13);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar4(out, ch8, ch9, ch10, ch11);
+			DataOutputUTFUtils.putUTFChar2(out, ch12, ch13);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			return (hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11) * prime + ch12) * prime + ch13;
+			int h = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
+			return (h * prime + ch12) * prime + ch13;
 		}
 			
 
@@ -1145,7 +1799,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char14NodeName other = (Char14NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1158,21 +1812,39 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char14NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 14 * VM_CharSize
-					;
+	public static class Char14NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 14 * VM_CharSize);
 		
+		public Char14NodeNameEncoderOption() {
+			super(14);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 14) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char14NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9), name.charAt(10), name.charAt(11), //
-					name.charAt(12), name.charAt(13));
+			return new Char14NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9), source.charAt(offset + 10), source.charAt(offset + 11), //
+					source.charAt(offset + 12), source.charAt(offset + 13));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char14NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9], source[offset + 10], source[offset + 11], //
+					source[offset + 12], source[offset + 13]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char14NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9), latin1CharAt(source, offset + 10), latin1CharAt(source, offset + 11), //
+					latin1CharAt(source, offset + 12), latin1CharAt(source, offset + 13));
 		}
 	}
 
@@ -1202,6 +1874,33 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9 + ch10 + ch11 + ch12 + ch13 + ch14;
 		}
 
+		@Override
+		public int length() {
+			return 15;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			case 10: return ch10;
+			case 11: return ch11;
+			case 12: return ch12;
+			case 13: return ch13;
+			case 14: return ch14;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 15");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1231,11 +1930,23 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar3(out, ch12, ch13, ch14);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) 
+					+ DataOutputUTFUtils.utfLen4(ch8, ch9, ch10, ch11)
+					+ DataOutputUTFUtils.utfLen3(ch12, ch13, ch14);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar4(out, ch8, ch9, ch10, ch11);
+			DataOutputUTFUtils.putUTFChar3(out, ch12, ch13, ch14);
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
-			int hash12 = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
-			return ((hash12 * prime + ch12) * prime + ch13) * prime + ch14;
+			int h = hashCode12(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11);
+			return ((h * prime + ch12) * prime + ch13) * prime + ch14;
 		}
 			
 
@@ -1243,7 +1954,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char15NodeName other = (Char15NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1256,21 +1967,39 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char15NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 15 * VM_CharSize
-					;
+	public static class Char15NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 15 * VM_CharSize);
 		
+		public Char15NodeNameEncoderOption() {
+			super(15);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 15) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char15NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9), source.charAt(offset + 10), source.charAt(offset + 11), //
+					source.charAt(offset + 12), source.charAt(offset + 13), source.charAt(offset + 14));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char15NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9], source[offset + 10], source[offset + 11], //
+					source[offset + 12], source[offset + 13], source[offset + 14]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char15NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9), name.charAt(10), name.charAt(11), //
-					name.charAt(12), name.charAt(13), name.charAt(14));
+			return new Char15NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9), latin1CharAt(source, offset + 10), latin1CharAt(source, offset + 11), //
+					latin1CharAt(source, offset + 12), latin1CharAt(source, offset + 13), latin1CharAt(source, offset + 14));
 		}
 	}
 
@@ -1301,6 +2030,34 @@ public final class CharStructNodeNameEncoderOptions {
 			return "" + ch0 + ch1 + ch2 + ch3 + ch4 + ch5 + ch6 + ch7 + ch8 + ch9 + ch10 + ch11 + ch12 + ch13 + ch14 + ch15;
 		}
 
+		@Override
+		public int length() {
+			return 16;
+		}
+
+		@Override
+		public char charAt(int index) {
+			switch(index) {
+			case 0: return ch0;
+			case 1: return ch1;
+			case 2: return ch2;
+			case 3: return ch3;
+			case 4: return ch4;
+			case 5: return ch5;
+			case 6: return ch6;
+			case 7: return ch7;
+			case 8: return ch8;
+			case 9: return ch9;
+			case 10: return ch10;
+			case 11: return ch11;
+			case 12: return ch12;
+			case 13: return ch13;
+			case 14: return ch14;
+			case 15: return ch15;
+			default: throw new IndexOutOfBoundsException("index: " + index + ", length: 16");
+			}
+		}
+
 		@Override
 		public void appendTo(StringBuilder out) {
 			appendTo8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
@@ -1322,12 +2079,19 @@ public final class CharStructNodeNameEncoderOptions {
 			DataOutputUTFUtils.writeUTFChar8(out, ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
 		}
 
+		@Override
+		public void writeTo(ByteBuffer out) {
+			int utfLen = DataOutputUTFUtils.utfLen8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7) 
+					+ DataOutputUTFUtils.utfLen8(ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
+			checkRemaining(out, 2 + utfLen);
+			putUTFLen(out, utfLen);
+			DataOutputUTFUtils.putUTFChar8(out, ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
+			DataOutputUTFUtils.putUTFChar8(out, ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
+		}
+
 		@Override
 		public int hashCode() {
-			final int prime = 31;
-			int hash1 = hashCode8(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7);
-			int hash2 = hashCode8(ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
-			return hash1 * prime + hash2;
+			return hashCode16(ch0, ch1, ch2, ch3, ch4, ch5, ch6, ch7, ch8, ch9, ch10, ch11, ch12, ch13, ch14, ch15);
 		}
 			
 
@@ -1335,7 +2099,7 @@ public final class CharStructNodeNameEncoderOptions {
 		public boolean equals(Object obj) {
 			if (this == obj)
 				return true;
-			if (getClass() == obj.getClass()) {
+			if (obj != null && getClass() == obj.getClass()) {
 				Char16NodeName other = (Char16NodeName) obj;
 				return ch0 == other.ch0 && ch1 == other.ch1 && ch2 == other.ch2 && ch3 == other.ch3 //
 						&& ch4 == other.ch4 && ch5 == other.ch5 && ch6 == other.ch6 && ch7 == other.ch7 //
@@ -1348,21 +2112,39 @@ public final class CharStructNodeNameEncoderOptions {
 		
 	}
 	
-	public static class Char16NodeNameEncoderOption extends NodeNameEncoderOption {
-		public static final int ENCODER_SIZE = VM_ObjectHeaderSize
-					+ 16 * VM_CharSize
-					;
+	public static class Char16NodeNameEncoderOption extends CharStructNodeNameEncoderOption {
+		public static final int ENCODER_SIZE = alignedObjectSize(VM_ObjectHeaderSize
+					+ 16 * VM_CharSize);
 		
+		public Char16NodeNameEncoderOption() {
+			super(16);
+		}
+
 		@Override
-		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
-			if (name.length() != 16) {
-				return null;
-			}
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char16NodeName(source.charAt(offset), source.charAt(offset + 1), source.charAt(offset + 2), source.charAt(offset + 3), // 
+					source.charAt(offset + 4), source.charAt(offset + 5), source.charAt(offset + 6), source.charAt(offset + 7), //
+					source.charAt(offset + 8), source.charAt(offset + 9), source.charAt(offset + 10), source.charAt(offset + 11), //
+					source.charAt(offset + 12), source.charAt(offset + 13), source.charAt(offset + 14), source.charAt(offset + 15));
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = ENCODER_SIZE;
+			return new Char16NodeName(source[offset], source[offset + 1], source[offset + 2], source[offset + 3], // 
+					source[offset + 4], source[offset + 5], source[offset + 6], source[offset + 7], //
+					source[offset + 8], source[offset + 9], source[offset + 10], source[offset + 11], //
+					source[offset + 12], source[offset + 13], source[offset + 14], source[offset + 15]);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
 			sizeResult.estimatedSize = ENCODER_SIZE;
-			return new Char16NodeName(name.charAt(0), name.charAt(1), name.charAt(2), name.charAt(3), // 
-					name.charAt(4), name.charAt(5), name.charAt(6), name.charAt(7), //
-					name.charAt(8), name.charAt(9), name.charAt(10), name.charAt(11), //
-					name.charAt(12), name.charAt(13), name.charAt(14), name.charAt(15));
+			return new Char16NodeName(latin1CharAt(source, offset), latin1CharAt(source, offset + 1), latin1CharAt(source, offset + 2), latin1CharAt(source, offset + 3), // 
+					latin1CharAt(source, offset + 4), latin1CharAt(source, offset + 5), latin1CharAt(source, offset + 6), latin1CharAt(source, offset + 7), //
+					latin1CharAt(source, offset + 8), latin1CharAt(source, offset + 9), latin1CharAt(source, offset + 10), latin1CharAt(source, offset + 11), //
+					latin1CharAt(source, offset + 12), latin1CharAt(source, offset + 13), latin1CharAt(source, offset + 14), latin1CharAt(source, offset + 15));
 		}
 	}
 	
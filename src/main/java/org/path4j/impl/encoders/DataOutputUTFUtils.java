@@ -2,6 +2,7 @@ package org.path4j.impl.encoders;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /*pp*/ final class DataOutputUTFUtils {
 
@@ -71,4 +72,43 @@ import java.io.IOException;
 		writeUTFChar4(out, c4, c5, c6, c7);
 	}
 
+	// put to ByteBuffer, same bytes as writeUTFChar*(DataOutputStream..)
+	// ------------------------------------------------------------------------
+
+	public static void putUTFChar(ByteBuffer out, char c) {
+		if ((c >= 0x0001) && (c <= 0x007F)) {
+			out.put((byte) c);
+		} else if (c > 0x07FF) {
+			out.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+			out.put((byte) (0x80 | ((c >>  6) & 0x3F)));
+			out.put((byte) (0x80 | ((c >>  0) & 0x3F)));
+		} else {
+			out.put((byte) (0xC0 | ((c >>  6) & 0x1F)));
+			out.put((byte) (0x80 | ((c >>  0) & 0x3F)));
+		}
+	}
+
+	public static void putUTFChar2(ByteBuffer out, char c0, char c1) {
+		putUTFChar(out, c0);
+		putUTFChar(out, c1);
+	}
+
+	public static void putUTFChar3(ByteBuffer out, char c0, char c1, char c2) {
+		putUTFChar(out, c0);
+		putUTFChar(out, c1);
+		putUTFChar(out, c2);
+	}
+
+	public static void putUTFChar4(ByteBuffer out, char c0, char c1, char c2, char c3) {
+		putUTFChar(out, c0);
+		putUTFChar(out, c1);
+		putUTFChar(out, c2);
+		putUTFChar(out, c3);
+	}
+
+	public static void putUTFChar8(ByteBuffer out, char c0, char c1, char c2, char c3, char c4, char c5, char c6, char c7) {
+		putUTFChar4(out, c0, c1, c2, c3);
+		putUTFChar4(out, c4, c5, c6, c7);
+	}
+
 }
@@ -1,37 +1,67 @@
 package org.path4j.impl.encoders;
 
-import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ArrayHeaderSize;
 import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_CharSize;
-import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_IntSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_CompactStrings;
 import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
 import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_RefSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_StringFieldsSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedArraySize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
+
+import java.util.Arrays;
 
 import org.path4j.NodeName;
 import org.path4j.encoder.NodeNameEncoderOption;
 import org.path4j.impl.StringNodeName;
 
 import lombok.AllArgsConstructor;
+import lombok.val;
 
 public class DefaultNodeNameEncoderOptions {
 
-	public static final StringNodeNameEncoderOption CHAR_ARRAY_OPTION = new StringNodeNameEncoderOption();
+	public static final CharArrayNodeNameEncoderOption CHAR_ARRAY_OPTION = new CharArrayNodeNameEncoderOption();
 	public static final StringNodeNameEncoderOption STRING_OPTION = new StringNodeNameEncoderOption();
 
 	public static int defaultStringEncoderSize(String name) {
-		return VM_ObjectHeaderSize // for StringNodeName object
-				+ VM_RefSize // for StringNodeName.name
-				+ VM_ObjectHeaderSize // for java.lang.String object
-				+ VM_RefSize // for java.lang.String.value ref
-				+ VM_IntSize // for java.lan.String.hash
-				+ VM_ArrayHeaderSize // for char[] array object
-				+ name.length() * VM_CharSize; // for chars element (maybe ascii compressed by jvm?)
+		return defaultStringEncoderSize(name.length(), VM_CompactStrings && isAllLatin1(name));
+	}
+
+	/**
+	 * worst case estimate, when chars are not known to be Latin-1
+	 */
+	public static int defaultStringEncoderSize(int nameLength) {
+		return defaultStringEncoderSize(nameLength, false);
+	}
+
+	/**
+	 * @param latin1 true when all chars are <= 0xFF, so stored as 1 byte per char in compact Strings
+	 */
+	public static int defaultStringEncoderSize(int nameLength, boolean latin1) {
+		return alignedObjectSize(VM_ObjectHeaderSize // for StringNodeName object
+					+ VM_RefSize) // for StringNodeName.name
+				+ alignedObjectSize(VM_ObjectHeaderSize // for java.lang.String object
+					+ VM_StringFieldsSize) // for java.lang.String.value ref, hash (coder..)
+				+ alignedArraySize((latin1 && VM_CompactStrings)? 1 : VM_CharSize, nameLength); // for char[] (or byte[]) value
+	}
+
+	private static boolean isAllLatin1(String name) {
+		val len = name.length();
+		for(int i = 0; i < len; i++) {
+			if (name.charAt(i) > 0xFF) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	public static int defaultCharArrayEncoderSize(char[] name) {
-		return VM_ObjectHeaderSize // for CharArrayNodeName object
-				+ VM_RefSize // for StringNodeName.name
-				+ VM_ArrayHeaderSize // for char[] array object
-				+ name.length * VM_CharSize; // for chars element (maybe ascii compressed by jvm?)
+		return defaultCharArrayEncoderSize(name.length);
+	}
+
+	public static int defaultCharArrayEncoderSize(int nameLength) {
+		return alignedObjectSize(VM_ObjectHeaderSize // for CharArrayNodeName object
+					+ VM_RefSize) // for CharArrayNodeName.name
+				+ alignedArraySize(VM_CharSize, nameLength); // for char[] array object
 	}
 	
 	// ------------------------------------------------------------------------
@@ -55,6 +85,31 @@ public class DefaultNodeNameEncoderOptions {
 		public String toText() {
 			return new String(name);
 		}
+
+		@Override
+		public int length() {
+			return name.length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return name[index];
+		}
+
+		@Override
+		public void appendTo(StringBuilder sb) {
+			sb.append(name);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj instanceof CharArrayNodeName) {
+				return Arrays.equals(name, ((CharArrayNodeName) obj).name);
+			}
+			return super.equals(obj);
+		}
 	}
 	
 	public static class CharArrayNodeNameEncoderOption extends NodeNameEncoderOption {
@@ -64,6 +119,33 @@ public class DefaultNodeNameEncoderOptions {
 			sizeResult.estimatedSize = defaultCharArrayEncoderSize(charArray);
 			return new CharArrayNodeName(charArray);
 		}
+
+		@Override
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			char[] charArray = new char[length];
+			for(int i = 0; i < length; i++) {
+				charArray[i] = source.charAt(offset + i);
+			}
+			sizeResult.estimatedSize = defaultCharArrayEncoderSize(charArray);
+			return new CharArrayNodeName(charArray);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			char[] charArray = Arrays.copyOfRange(source, offset, offset + length);
+			sizeResult.estimatedSize = defaultCharArrayEncoderSize(charArray);
+			return new CharArrayNodeName(charArray);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			char[] charArray = new char[length];
+			for(int i = 0; i < length; i++) {
+				charArray[i] = (char) (source[offset + i] & 0xFF);
+			}
+			sizeResult.estimatedSize = defaultCharArrayEncoderSize(charArray);
+			return new CharArrayNodeName(charArray);
+		}
 	}
 
 }
@@ -0,0 +1,427 @@
+package org.path4j.impl.encoders;
+
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.path4j.NodeName;
+import org.path4j.encoder.NodeNameEncoderOption;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * compression strategy packing ascii chars in range 01-7F as 7 bits, 9 chars per long field,
+ * in 1, 2 or 3 long fields, for names of up to 27 chars.
+ *
+ * first char is in highest bits (bit 63 always 0), unused trailing slots are 0 (never a valid char),
+ * so that:
+ * <ul>
+ * <li>equals() compares whole words</li>
+ * <li>compareTo() compares words as (positive) longs, in lexicographic order, then finds the differing char</li>
+ * <li>length() is derived from trailing 0 slots, without storing it</li>
+ * </ul>
+ */
+public final class LongPackedNodeNameEncoderOptions {
+
+	public static final int CHARS_PER_LONG = 9;
+	public static final int BITS_PER_CHAR = 7;
+	private static final int CHAR_MASK = 0x7F;
+
+	/** bit shift of first char slot in a word */
+	private static final int FIRST_SLOT_SHIFT = (CHARS_PER_LONG - 1) * BITS_PER_CHAR;
+
+	public static final ImmutableList<NodeNameEncoderOption> DEFAULTS = ImmutableList.<NodeNameEncoderOption>of(
+			new LongPackedNodeNameEncoderOption(1),
+			new LongPackedNodeNameEncoderOption(2),
+			new LongPackedNodeNameEncoderOption(3)
+			);
+
+	public static int encoderSize(int wordCount) {
+		return alignedObjectSize(VM_ObjectHeaderSize + 8 * wordCount);
+	}
+
+	// pack chars of range [offset, offset+length) into word, length <= CHARS_PER_LONG
+	// ------------------------------------------------------------------------
+
+	/*pp*/ static long packWord(CharSequence source, int offset, int length) {
+		long res = 0;
+		for(int i = 0; i < CHARS_PER_LONG; i++) {
+			res = (res << BITS_PER_CHAR) | ((i < length)? source.charAt(offset + i) : 0);
+		}
+		return res;
+	}
+
+	/*pp*/ static long packWord(char[] source, int offset, int length) {
+		long res = 0;
+		for(int i = 0; i < CHARS_PER_LONG; i++) {
+			res = (res << BITS_PER_CHAR) | ((i < length)? source[offset + i] : 0);
+		}
+		return res;
+	}
+
+	/*pp*/ static long packWord(byte[] source, int offset, int length) {
+		long res = 0;
+		for(int i = 0; i < CHARS_PER_LONG; i++) {
+			res = (res << BITS_PER_CHAR) | ((i < length)? source[offset + i] : 0);
+		}
+		return res;
+	}
+
+	/**
+	 * @return char at slot of word, or 0 for unused slot
+	 */
+	/*pp*/ static char charAtSlot(long word, int slot) {
+		return (char) ((word >>> (FIRST_SLOT_SHIFT - slot * BITS_PER_CHAR)) & CHAR_MASK);
+	}
+
+	/**
+	 * @return count of used slots of word
+	 */
+	/*pp*/ static int wordLength(long word) {
+		return (word == 0)? 0 : CHARS_PER_LONG - Long.numberOfTrailingZeros(word) / BITS_PER_CHAR;
+	}
+
+	private static int wordLengthAt(int length, int wordIndex) {
+		return Math.max(0, Math.min(CHARS_PER_LONG, length - wordIndex * CHARS_PER_LONG));
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * encoder option for names of length in ((wordCount-1)*9, wordCount*9], with all chars in range 01-7F
+	 */
+	public static class LongPackedNodeNameEncoderOption extends NodeNameEncoderOption {
+		private final int wordCount;
+		private final int encoderSize;
+
+		public LongPackedNodeNameEncoderOption(int wordCount) {
+			if (wordCount < 1 || wordCount > 3) {
+				throw new IllegalArgumentException("wordCount: " + wordCount + ", expecting 1, 2 or 3");
+			}
+			this.wordCount = wordCount;
+			this.encoderSize = encoderSize(wordCount);
+		}
+
+		@Override
+		public int getMinLength() {
+			return (wordCount - 1) * CHARS_PER_LONG + 1;
+		}
+
+		@Override
+		public int getMaxLength() {
+			return wordCount * CHARS_PER_LONG;
+		}
+
+		@Override
+		public boolean isSimpleCharsOnly() {
+			return true;
+		}
+
+		@Override
+		public NodeName tryEncode(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncode((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(String name, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			return tryEncodePrechecked((CharSequence) name, 0, name.length(), maxEstimatedSize, sizeResult);
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(CharSequence source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = encoderSize;
+			val w0 = packWord(source, offset, wordLengthAt(length, 0));
+			switch(wordCount) {
+			case 1: return new LongPacked1NodeName(w0);
+			case 2: return new LongPacked2NodeName(w0,
+					packWord(source, offset + CHARS_PER_LONG, wordLengthAt(length, 1)));
+			default: return new LongPacked3NodeName(w0,
+					packWord(source, offset + CHARS_PER_LONG, wordLengthAt(length, 1)),
+					packWord(source, offset + 2 * CHARS_PER_LONG, wordLengthAt(length, 2)));
+			}
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(char[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = encoderSize;
+			val w0 = packWord(source, offset, wordLengthAt(length, 0));
+			switch(wordCount) {
+			case 1: return new LongPacked1NodeName(w0);
+			case 2: return new LongPacked2NodeName(w0,
+					packWord(source, offset + CHARS_PER_LONG, wordLengthAt(length, 1)));
+			default: return new LongPacked3NodeName(w0,
+					packWord(source, offset + CHARS_PER_LONG, wordLengthAt(length, 1)),
+					packWord(source, offset + 2 * CHARS_PER_LONG, wordLengthAt(length, 2)));
+			}
+		}
+
+		@Override
+		public NodeName tryEncodePrechecked(byte[] source, int offset, int length, int maxEstimatedSize, EncodeSizeResult sizeResult) {
+			sizeResult.estimatedSize = encoderSize;
+			val w0 = packWord(source, offset, wordLengthAt(length, 0));
+			switch(wordCount) {
+			case 1: return new LongPacked1NodeName(w0);
+			case 2: return new LongPacked2NodeName(w0,
+					packWord(source, offset + CHARS_PER_LONG, wordLengthAt(length, 1)));
+			default: return new LongPacked3NodeName(w0,
+					packWord(source, offset + CHARS_PER_LONG, wordLengthAt(length, 1)),
+					packWord(source, offset + 2 * CHARS_PER_LONG, wordLengthAt(length, 2)));
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * base class for names packed in long words, 9 chars per word
+	 */
+	public static abstract class LongPackedNodeName extends NodeName {
+
+		/*pp*/ abstract int wordCount();
+
+		/*pp*/ abstract long word(int i);
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length()) {
+				throw new IndexOutOfBoundsException("index: " + index + ", length: " + length());
+			}
+			return charAtSlot(word(index / CHARS_PER_LONG), index % CHARS_PER_LONG);
+		}
+
+		@Override
+		public final String toText() {
+			val sb = new StringBuilder(length());
+			appendTo(sb);
+			return sb.toString();
+		}
+
+		@Override
+		public void appendTo(StringBuilder sb) {
+			val count = wordCount();
+			for(int w = 0; w < count; w++) {
+				val word = word(w);
+				for(int slot = 0; slot < CHARS_PER_LONG; slot++) {
+					val ch = charAtSlot(word, slot);
+					if (ch == 0) {
+						return;
+					}
+					sb.append(ch);
+				}
+			}
+		}
+
+		@Override
+		public void writeUTF(DataOutputStream out) throws IOException {
+			DataOutputUTFUtils.writeUTFLen(out, length());
+			val count = wordCount();
+			for(int w = 0; w < count; w++) {
+				val word = word(w);
+				for(int slot = 0; slot < CHARS_PER_LONG; slot++) {
+					val ch = charAtSlot(word, slot);
+					if (ch == 0) {
+						return;
+					}
+					out.write(ch);
+				}
+			}
+		}
+
+		/**
+		 * all chars are in range 01-7F: 1 byte per char
+		 */
+		@Override
+		public int utfSize() {
+			return 2 + length();
+		}
+
+		/**
+		 * unpack 8 first slots of each full word to a long of 8 bytes, for bulk putLong()
+		 */
+		@Override
+		public void writeTo(ByteBuffer out) {
+			val len = length();
+			checkRemaining(out, 2 + len);
+			putUTFLen(out, len);
+			val count = wordCount();
+			for(int w = 0; w < count; w++) {
+				val word = word(w);
+				if (charAtSlot(word, CHARS_PER_LONG - 1) != 0) {
+					long bytes = 0;
+					for(int slot = 0; slot < CHARS_PER_LONG - 1; slot++) {
+						bytes = (bytes << 8) | charAtSlot(word, slot);
+					}
+					putBigEndianLong(out, bytes);
+					out.put((byte) charAtSlot(word, CHARS_PER_LONG - 1));
+				} else {
+					for(int slot = 0; slot < CHARS_PER_LONG; slot++) {
+						val ch = charAtSlot(word, slot);
+						if (ch == 0) {
+							return;
+						}
+						out.put((byte) ch);
+					}
+				}
+			}
+		}
+
+		/**
+		 * same as toText().hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			int h = 0;
+			val count = wordCount();
+			for(int w = 0; w < count; w++) {
+				val word = word(w);
+				for(int slot = 0; slot < CHARS_PER_LONG; slot++) {
+					val ch = charAtSlot(word, slot);
+					if (ch == 0) {
+						return h;
+					}
+					h = 31 * h + ch;
+				}
+			}
+			return h;
+		}
+
+		/**
+		 * same as toText().compareTo(other.toText()), comparing whole words when other is also long packed
+		 */
+		@Override
+		public int compareTo(NodeName other) {
+			if (!(other instanceof LongPackedNodeName)) {
+				return super.compareTo(other);
+			}
+			val o = (LongPackedNodeName) other;
+			val count = Math.max(wordCount(), o.wordCount());
+			for(int w = 0; w < count; w++) {
+				val word = (w < wordCount())? word(w) : 0L;
+				val otherWord = (w < o.wordCount())? o.word(w) : 0L;
+				if (word != otherWord) {
+					// first differing slot, from highest differing bit
+					val slot = (Long.numberOfLeadingZeros(word ^ otherWord) - 1) / BITS_PER_CHAR;
+					val ch = charAtSlot(word, slot);
+					val otherCh = charAtSlot(otherWord, slot);
+					if (ch != 0 && otherCh != 0) {
+						return ch - otherCh;
+					}
+					return length() - o.length();
+				}
+			}
+			return 0;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@AllArgsConstructor
+	public static class LongPacked1NodeName extends LongPackedNodeName {
+		public final long w0;
+
+		@Override
+		/*pp*/ int wordCount() {
+			return 1;
+		}
+
+		@Override
+		/*pp*/ long word(int i) {
+			return w0;
+		}
+
+		@Override
+		public int length() {
+			return wordLength(w0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj != null && getClass() == obj.getClass()) {
+				LongPacked1NodeName other = (LongPacked1NodeName) obj;
+				return w0 == other.w0;
+			} else {
+				return super.equals(obj);
+			}
+		}
+	}
+
+	@AllArgsConstructor
+	public static class LongPacked2NodeName extends LongPackedNodeName {
+		public final long w0;
+		public final long w1;
+
+		@Override
+		/*pp*/ int wordCount() {
+			return 2;
+		}
+
+		@Override
+		/*pp*/ long word(int i) {
+			return (i == 0)? w0 : w1;
+		}
+
+		@Override
+		public int length() {
+			return CHARS_PER_LONG + wordLength(w1);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj != null && getClass() == obj.getClass()) {
+				LongPacked2NodeName other = (LongPacked2NodeName) obj;
+				return w0 == other.w0 && w1 == other.w1;
+			} else {
+				return super.equals(obj);
+			}
+		}
+	}
+
+	@AllArgsConstructor
+	public static class LongPacked3NodeName extends LongPackedNodeName {
+		public final long w0;
+		public final long w1;
+		public final long w2;
+
+		@Override
+		/*pp*/ int wordCount() {
+			return 3;
+		}
+
+		@Override
+		/*pp*/ long word(int i) {
+			switch(i) {
+			case 0: return w0;
+			case 1: return w1;
+			default: return w2;
+			}
+		}
+
+		@Override
+		public int length() {
+			return 2 * CHARS_PER_LONG + wordLength(w2);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj != null && getClass() == obj.getClass()) {
+				LongPacked3NodeName other = (LongPacked3NodeName) obj;
+				return w0 == other.w0 && w1 == other.w1 && w2 == other.w2;
+			} else {
+				return super.equals(obj);
+			}
+		}
+	}
+
+}
@@ -1,17 +1,37 @@
 package org.path4j.impl.encoders;
 
+/**
+ * object layout sizes of the running JVM, as measured by VMObjectLayout at startup
+ */
 public final class NodeNameEncoderConstants {
 
-	public static final int VM_ObjectHeaderSize = 12;
-	public static final int VM_ArrayHeaderSize = 16;
+	public static final int VM_ObjectHeaderSize = VMObjectLayout.CURRENT.objectHeaderSize;
+	public static final int VM_ArrayHeaderSize = VMObjectLayout.CURRENT.arrayHeaderSize;
 	
-	public static final int VM_RefSize = 4; // maybe 8 if "-XX:-UseCompressedOops"
+	public static final int VM_RefSize = VMObjectLayout.CURRENT.refSize; // 8 if "-XX:-UseCompressedOops"
+	public static final int VM_ObjectAlignment = VMObjectLayout.CURRENT.objectAlignment;
 	public static final int VM_CharSize = 2;
 	public static final int VM_IntSize = 4;
 //	public static final int VM_LongSize = 8;
 
-//	public static final int VM_Padding2Size = 2;
-//	public static final int VM_Padding4Size = 4;
-//	public static final int VM_Padding6Size = 6;
+	/** true if java.lang.String stores Latin-1 chars as 1 byte per char */
+	public static final boolean VM_CompactStrings = VMObjectLayout.CURRENT.compactStrings;
+	/** size of java.lang.String fields, excluding header */
+	public static final int VM_StringFieldsSize = VMObjectLayout.CURRENT.stringFieldsSize;
+
+	/**
+	 * @return size of object rounded up to VM_ObjectAlignment, as allocated by the JVM
+	 * (for example with 12 bytes header: 1 to 4 bytes of fields use 16 bytes, 5 to 12 use 24 bytes)
+	 */
+	public static int alignedObjectSize(int size) {
+		return (size + VM_ObjectAlignment - 1) & -VM_ObjectAlignment;
+	}
+
+	/**
+	 * @return aligned size of array object, with elements of elementSize bytes
+	 */
+	public static int alignedArraySize(int elementSize, int length) {
+		return alignedObjectSize(VM_ArrayHeaderSize + elementSize * length);
+	}
 
 }
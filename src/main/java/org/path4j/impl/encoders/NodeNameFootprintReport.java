@@ -0,0 +1,238 @@
+package org.path4j.impl.encoders;
+
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_CharSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_CompactStrings;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_RefSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_StringFieldsSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedArraySize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.path4j.NodeNameEncoder;
+import org.path4j.NodeNamesPath;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * footprint report of encoded paths of a corpus:
+ * histogram of chosen NodeName encodings, with retained bytes, versus plain String baselines.
+ *
+ * retained bytes are computed by walking the object graph, using the measured VMObjectLayout.
+ * shared instances (internalized names) are counted once.
+ *
+ * usage: java org.path4j.impl.encoders.NodeNameFootprintReport paths.txt (one path per line)
+ */
+public class NodeNameFootprintReport {
+
+	/** histogram entry, per NodeName class */
+	public static class EncodingStats {
+		/** count of path elements using this encoding */
+		public long count;
+		/** count of distinct instances (by identity) */
+		public long instanceCount;
+		/** retained bytes of distinct instances */
+		public long retainedBytes;
+	}
+
+	private final Map<String,EncodingStats> statsByEncoding = new TreeMap<>();
+
+	private long pathCount;
+	private long pathElementCount;
+	private long nameRetainedBytes;
+	private long pathRetainedBytes;
+
+	/** baseline: one String per path */
+	private long stringPathBytes;
+	/** baseline: String[] of path elements per path, as returned by String.split("/") */
+	private long stringElementsBytes;
+
+	private final IdentityHashMap<Object,Boolean> visited = new IdentityHashMap<>();
+	private final Map<Class<?>,ClassLayout> classLayouts = new HashMap<>();
+
+	// ------------------------------------------------------------------------
+
+	public static NodeNameFootprintReport analyze(NodeNameEncoder encoder, Iterable<String> paths) {
+		val res = new NodeNameFootprintReport();
+		for(val path : paths) {
+			res.add(path, encoder.encodePath(path));
+		}
+		return res;
+	}
+
+	/**
+	 * add encoded path, kept in report for counting shared instances by identity
+	 */
+	public void add(String path, NodeNamesPath encodedPath) {
+		pathCount++;
+		stringPathBytes += stringSize(path);
+		val pathSize = encodedPath.size();
+		stringElementsBytes += alignedArraySize(VM_RefSize, pathSize);
+		for(int i = 0; i < pathSize; i++) {
+			val name = encodedPath.get(i);
+			pathElementCount++;
+			stringElementsBytes += stringSize(name);
+
+			val stats = statsByEncoding.computeIfAbsent(name.getClass().getSimpleName(), k -> new EncodingStats());
+			stats.count++;
+			if (! visited.containsKey(name)) {
+				val bytes = retainedSize(name);
+				stats.instanceCount++;
+				stats.retainedBytes += bytes;
+				nameRetainedBytes += bytes;
+			}
+		}
+		// names already visited: only NodeNamesPath object and its array
+		pathRetainedBytes += retainedSize(encodedPath);
+	}
+
+	public Map<String,EncodingStats> getStatsByEncoding() {
+		return statsByEncoding;
+	}
+
+	public long getPathCount() {
+		return pathCount;
+	}
+
+	public long getPathElementCount() {
+		return pathElementCount;
+	}
+
+	/** retained bytes of all NodeNamesPath and distinct NodeName instances */
+	public long getEncodedBytes() {
+		return nameRetainedBytes + pathRetainedBytes;
+	}
+
+	public long getStringPathBytes() {
+		return stringPathBytes;
+	}
+
+	public long getStringElementsBytes() {
+		return stringElementsBytes;
+	}
+
+	public void print(PrintStream out) {
+		out.println("layout: " + VMObjectLayout.CURRENT);
+		out.println("paths: " + pathCount + ", path elements: " + pathElementCount);
+		out.println(String.format("%-28s %12s %12s %14s %10s", "encoding", "count", "instances", "retainedBytes", "bytes/inst"));
+		for(val e : statsByEncoding.entrySet()) {
+			val stats = e.getValue();
+			out.println(String.format("%-28s %12d %12d %14d %10.1f", e.getKey(), stats.count, stats.instanceCount, stats.retainedBytes,
+					(stats.instanceCount != 0)? (double) stats.retainedBytes / stats.instanceCount : 0.0));
+		}
+		out.println("encoded names: " + nameRetainedBytes + " bytes, paths: " + pathRetainedBytes + " bytes, total: " + getEncodedBytes() + " bytes");
+		out.println("baseline String per path: " + stringPathBytes + " bytes (" + percent(getEncodedBytes(), stringPathBytes) + ")");
+		out.println("baseline String[] per path: " + stringElementsBytes + " bytes (" + percent(getEncodedBytes(), stringElementsBytes) + ")");
+	}
+
+	private static String percent(long value, long baseline) {
+		return (baseline != 0)? String.format("encoded is %.1f%%", 100.0 * value / baseline) : "-";
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("usage: NodeNameFootprintReport <pathsFile>");
+			return;
+		}
+		val paths = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+		val report = analyze(DefaultNodeNameEncoder.createDefault(), paths);
+		report.print(System.out);
+	}
+
+	// retained size computation
+	// ------------------------------------------------------------------------
+
+	private static int stringSize(CharSequence text) {
+		val len = text.length();
+		boolean latin1 = VM_CompactStrings;
+		for(int i = 0; latin1 && i < len; i++) {
+			latin1 = text.charAt(i) <= 0xFF;
+		}
+		return alignedObjectSize(VM_ObjectHeaderSize + VM_StringFieldsSize)
+				+ alignedArraySize((latin1)? 1 : VM_CharSize, len);
+	}
+
+	@AllArgsConstructor
+	private static class ClassLayout {
+		final int shallowSize;
+		final List<Field> refFields;
+	}
+
+	private ClassLayout classLayout(Class<?> clss) {
+		ClassLayout res = classLayouts.get(clss);
+		if (res == null) {
+			int fieldsSize = 0;
+			val refFields = new ArrayList<Field>();
+			for(Class<?> c = clss; c != null; c = c.getSuperclass()) {
+				for(val f : c.getDeclaredFields()) {
+					if (Modifier.isStatic(f.getModifiers())) {
+						continue;
+					}
+					fieldsSize += VMObjectLayout.fieldSize(f.getType(), VM_RefSize);
+					if (! f.getType().isPrimitive()) {
+						try {
+							f.setAccessible(true);
+							refFields.add(f);
+						} catch(RuntimeException ex) {
+							// ignore, jdk internal field not accessible
+						}
+					}
+				}
+			}
+			res = new ClassLayout(alignedObjectSize(VM_ObjectHeaderSize + fieldsSize), refFields);
+			classLayouts.put(clss, res);
+		}
+		return res;
+	}
+
+	/**
+	 * @return size of obj and objects reachable from it, not already visited
+	 */
+	private long retainedSize(Object obj) {
+		if (obj == null || visited.put(obj, Boolean.TRUE) != null) {
+			return 0;
+		}
+		val clss = obj.getClass();
+		if (obj instanceof String) {
+			return stringSize((String) obj);
+		}
+		if (clss.isArray()) {
+			val componentType = clss.getComponentType();
+			val len = Array.getLength(obj);
+			long res = alignedArraySize(VMObjectLayout.fieldSize(componentType, VM_RefSize), len);
+			if (! componentType.isPrimitive()) {
+				for(val elt : (Object[]) obj) {
+					res += retainedSize(elt);
+				}
+			}
+			return res;
+		}
+		val layout = classLayout(clss);
+		long res = layout.shallowSize;
+		for(val f : layout.refFields) {
+			try {
+				res += retainedSize(f.get(obj));
+			} catch (IllegalAccessException ex) {
+				// ignore, not accessible
+			}
+		}
+		return res;
+	}
+
+}
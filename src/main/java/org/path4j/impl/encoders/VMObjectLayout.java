@@ -0,0 +1,230 @@
+package org.path4j.impl.encoders;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.PlatformManagedObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * object layout of the running JVM: header / reference / alignment sizes, and compact Strings mode.
+ *
+ * measured once at startup using sun.misc.Unsafe (through reflection),
+ * with a pure-java fallback from HotSpot VM options and system properties when Unsafe is not available.
+ * JMX (HotSpotDiagnosticMXBean) is loaded only by this fallback, never when Unsafe is available,
+ * and any error of the fallback (LinkageError..) gives default layout of a 64-bit JVM with compressed oops
+ */
+@AllArgsConstructor
+public final class VMObjectLayout {
+
+	public static final VMObjectLayout CURRENT = detect();
+
+	/** offset of first field in an object: 12 with compressed class pointers, 16 without, 8 with compact object headers */
+	public final int objectHeaderSize;
+	/** offset of first element in an array */
+	public final int arrayHeaderSize;
+	/** 4 with compressed oops, 8 with "-XX:-UseCompressedOops" */
+	public final int refSize;
+	/** object sizes are rounded up to this alignment, default 8. When measured, inferred from max heap size and compressed oops */
+	public final int objectAlignment;
+	/** true when java.lang.String stores Latin-1 chars in a byte[], 1 byte per char (jdk >= 9, "-XX:+CompactStrings") */
+	public final boolean compactStrings;
+	/** size of java.lang.String instance fields, excluding header (value ref, hash, coder..) */
+	public final int stringFieldsSize;
+	/** true when measured using Unsafe, false when guessed by fallback */
+	public final boolean measured;
+
+	@Override
+	public String toString() {
+		return "VMObjectLayout[objectHeader:" + objectHeaderSize + " arrayHeader:" + arrayHeaderSize
+				+ " ref:" + refSize + " align:" + objectAlignment
+				+ " compactStrings:" + compactStrings + " stringFields:" + stringFieldsSize
+				+ ((measured)? "" : " (guessed)") + "]";
+	}
+
+	// ------------------------------------------------------------------------
+
+	/** sample class with a single int field, to measure header size */
+	@SuppressWarnings("unused")
+	private static class IntHolder {
+		int value;
+	}
+
+	public static VMObjectLayout detect() {
+		try {
+			return probeWithUnsafe();
+		} catch(Throwable ex) {
+			// ignore, use fallback
+		}
+		try {
+			return guessFallback();
+		} catch(Throwable ex) {
+			val stringValueBytes = isStringValueBytes();
+			return new VMObjectLayout(12, 16, 4, 8, stringValueBytes, (stringValueBytes)? 10 : 8, false);
+		}
+	}
+
+	/*pp*/ static VMObjectLayout probeWithUnsafe() throws Exception {
+		val unsafeClass = Class.forName("sun.misc.Unsafe");
+		val theUnsafeField = unsafeClass.getDeclaredField("theUnsafe");
+		theUnsafeField.setAccessible(true);
+		val unsafe = theUnsafeField.get(null);
+		val objectFieldOffset = unsafeClass.getMethod("objectFieldOffset", Field.class);
+		val arrayBaseOffset = unsafeClass.getMethod("arrayBaseOffset", Class.class);
+		val arrayIndexScale = unsafeClass.getMethod("arrayIndexScale", Class.class);
+
+		val objectHeaderSize = (int) (long) (Long) objectFieldOffset.invoke(unsafe, IntHolder.class.getDeclaredField("value"));
+		val arrayHeaderSize = (int) (Integer) arrayBaseOffset.invoke(unsafe, byte[].class);
+		val refSize = (int) (Integer) arrayIndexScale.invoke(unsafe, Object[].class);
+
+		// end of last instance field of String
+		int stringFieldsEnd = objectHeaderSize;
+		for(val f : String.class.getDeclaredFields()) {
+			if (Modifier.isStatic(f.getModifiers())) {
+				continue;
+			}
+			val offset = (int) (long) (Long) objectFieldOffset.invoke(unsafe, f);
+			stringFieldsEnd = Math.max(stringFieldsEnd, offset + fieldSize(f.getType(), refSize));
+		}
+		val compactStrings = isStringValueBytes() && isLatin1StoredAsBytes(unsafe, unsafeClass, objectFieldOffset);
+
+		return new VMObjectLayout(objectHeaderSize, arrayHeaderSize, refSize, inferObjectAlignment(refSize),
+				compactStrings, stringFieldsEnd - objectHeaderSize, true);
+	}
+
+	/**
+	 * infer alignment without reading VM options: compressed oops address at most 4G * alignment bytes of heap,
+	 * so alignment is 8 (default), unless a bigger heap is used with compressed oops
+	 */
+	private static int inferObjectAlignment(int refSize) {
+		int res = 8;
+		if (refSize == 4) {
+			val maxHeap = Runtime.getRuntime().maxMemory();
+			while(maxHeap > (4L << 30) * res && res < 256) {
+				res <<= 1;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * compact Strings may be disabled by "-XX:-CompactStrings": check byte[] length of a Latin-1 String
+	 */
+	private static boolean isLatin1StoredAsBytes(Object unsafe, Class<?> unsafeClass, Method objectFieldOffset) throws Exception {
+		val valueOffset = (Long) objectFieldOffset.invoke(unsafe, String.class.getDeclaredField("value"));
+		val getObject = unsafeClass.getMethod("getObject", Object.class, long.class);
+		val value = (byte[]) getObject.invoke(unsafe, "abc", valueOffset);
+		return value.length == 3;
+	}
+
+	/*pp*/ static VMObjectLayout guessFallback() {
+		val is64 = !"32".equals(System.getProperty("sun.arch.data.model"));
+		boolean compressedOops = is64 && Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024;
+		val compressedOopsOption = vmOption("UseCompressedOops");
+		if (compressedOopsOption != null) {
+			compressedOops = Boolean.parseBoolean(compressedOopsOption);
+		}
+		boolean compressedClassPointers = compressedOops;
+		val compressedClassOption = vmOption("UseCompressedClassPointers");
+		if (compressedClassOption != null) {
+			compressedClassPointers = Boolean.parseBoolean(compressedClassOption);
+		}
+		val compactHeaders = "true".equals(vmOption("UseCompactObjectHeaders"));
+
+		val refSize = (! is64 || compressedOops)? 4 : 8;
+		final int objectHeaderSize;
+		if (! is64) {
+			objectHeaderSize = 8;
+		} else if (compactHeaders) {
+			objectHeaderSize = 8;
+		} else {
+			objectHeaderSize = (compressedClassPointers)? 12 : 16;
+		}
+		val arrayHeaderSize = ((objectHeaderSize + 4) + 7) & ~7; // header + int length, 8 aligned
+		val stringValueBytes = isStringValueBytes();
+		val compactStrings = stringValueBytes && ! "false".equals(vmOption("CompactStrings"));
+		val stringFieldsSize = refSize // value
+				+ 4 // hash
+				+ ((stringValueBytes)? 2 : 0); // coder, hashIsZero
+		return new VMObjectLayout(objectHeaderSize, arrayHeaderSize, refSize, vmObjectAlignment(8),
+				compactStrings, stringFieldsSize, false);
+	}
+
+	private static boolean isStringValueBytes() {
+		try {
+			return String.class.getDeclaredField("value").getType() == byte[].class;
+		} catch(NoSuchFieldException ex) {
+			return false;
+		}
+	}
+
+	private static int vmObjectAlignment(int defaultValue) {
+		val value = vmOption("ObjectAlignmentInBytes");
+		return (value != null)? Integer.parseInt(value) : defaultValue;
+	}
+
+	/**
+	 * @return value of HotSpot VM option, or null (option not found, JMX not available..)
+	 */
+	private static String vmOption(String name) {
+		try {
+			return HotSpotVMOptions.get(name);
+		} catch(Throwable ex) {
+			// LinkageError when initializing HotSpotVMOptions
+			return null;
+		}
+	}
+
+	/**
+	 * HotSpot VM options, using com.sun.management.HotSpotDiagnosticMXBean through reflection.
+	 * holder class, so that JMX is loaded on first use only, from guessFallback()
+	 */
+	private static final class HotSpotVMOptions {
+		private static final Object MXBEAN;
+		private static final Method GET_VM_OPTION;
+
+		static {
+			Object mxbean = null;
+			Method getVMOption = null;
+			try {
+				val mxbeanClass = Class.forName("com.sun.management.HotSpotDiagnosticMXBean");
+				mxbean = ManagementFactory.getPlatformMXBean(mxbeanClass.asSubclass(PlatformManagedObject.class));
+				getVMOption = mxbeanClass.getMethod("getVMOption", String.class);
+			} catch(Throwable ex) {
+				// not a HotSpot VM, or no java.management module
+			}
+			MXBEAN = mxbean;
+			GET_VM_OPTION = getVMOption;
+		}
+
+		static String get(String name) {
+			if (MXBEAN == null) {
+				return null;
+			}
+			try {
+				val vmOption = GET_VM_OPTION.invoke(MXBEAN, name);
+				return (String) vmOption.getClass().getMethod("getValue").invoke(vmOption);
+			} catch(Throwable ex) {
+				return null; // unknown option
+			}
+		}
+	}
+
+	/*pp*/ static int fieldSize(Class<?> type, int refSize) {
+		if (! type.isPrimitive()) {
+			return refSize;
+		} else if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == char.class || type == short.class) {
+			return 2;
+		} else {
+			return 1;
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package org.path4j.impl.interners;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.path4j.NodeName;
+import org.path4j.encoder.NodeNameInterner;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * weight-bounded interner, for long-running processes encoding ever-changing names.
+ * 
+ * weight of a name is its estimated size in bytes, as computed by NodeNameEncoderOption.
+ * Table is striped into segments, each one an access-ordered LinkedHashMap evicting 
+ * its least-recently-used names when over its share of maxWeight
+ */
+public class BoundedNodeNameInterner extends NodeNameInterner {
+
+	private static final int DEFAULT_SEGMENT_COUNT = 16;
+
+	/** weight used for names interned without estimated size */
+	private static final int DEFAULT_WEIGHT = 32;
+
+	private final Segment[] segments;
+	
+	private final long maxWeight;
+
+	private final LongAdder hitCount = new LongAdder();
+	/** misses of intern(), adding a name to the table */
+	private final LongAdder missCount = new LongAdder();
+	/** misses of get(), not counted in hit rate: lookups of names that are not always intended to be interned */
+	private final LongAdder lookupMissCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder bytesSaved = new LongAdder();
+
+	// ------------------------------------------------------------------------
+
+	public BoundedNodeNameInterner(long maxWeight) {
+		this(maxWeight, DEFAULT_SEGMENT_COUNT);
+	}
+
+	/**
+	 * @param maxWeight maximum sum of estimated sizes of interned names
+	 * @param segmentCount count of independently locked segments, rounded up to a power of 2
+	 */
+	public BoundedNodeNameInterner(long maxWeight, int segmentCount) {
+		int count = 1;
+		while(count < segmentCount) {
+			count <<= 1;
+		}
+		this.maxWeight = maxWeight;
+		this.segments = new Segment[count];
+		val segmentMaxWeight = Math.max(1, maxWeight / count);
+		for(int i = 0; i < count; i++) {
+			segments[i] = new Segment(segmentMaxWeight);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@AllArgsConstructor
+	private static class Entry {
+		final NodeName name;
+		final int weight;
+	}
+
+	private class Segment {
+		private final long maxWeight;
+		private long weight;
+		private final LinkedHashMap<NodeName,Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		Segment(long maxWeight) {
+			this.maxWeight = maxWeight;
+		}
+
+		synchronized NodeName get(NodeName name) {
+			val found = entries.get(name);
+			if (found == null) {
+				lookupMissCount.increment();
+				return null;
+			}
+			hitCount.increment();
+			bytesSaved.add(found.weight);
+			return found.name;
+		}
+
+		synchronized NodeName intern(NodeName name, int estimatedSize) {
+			val found = entries.get(name);
+			if (found != null) {
+				hitCount.increment();
+				bytesSaved.add(found.weight);
+				return found.name;
+			}
+			missCount.increment();
+			entries.put(name, new Entry(name, estimatedSize));
+			weight += estimatedSize;
+			evictOverWeight();
+			return name;
+		}
+
+		private void evictOverWeight() {
+			// keep at least the last inserted name, even if heavier than maxWeight
+			Iterator<Entry> iter = entries.values().iterator();
+			while(weight > maxWeight && entries.size() > 1) {
+				val eldest = iter.next();
+				iter.remove();
+				weight -= eldest.weight;
+				evictionCount.increment();
+			}
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+
+		synchronized long weight() {
+			return weight;
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			weight = 0;
+		}
+	}
+
+	private Segment segmentFor(NodeName name) {
+		int h = name.hashCode();
+		h ^= (h >>> 16); // spread high bits, as in HashMap
+		return segments[h & (segments.length - 1)];
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public NodeName get(NodeName name) {
+		return segmentFor(name).get(name);
+	}
+
+	@Override
+	public NodeName intern(NodeName name) {
+		return intern(name, DEFAULT_WEIGHT);
+	}
+
+	@Override
+	public NodeName intern(NodeName name, int estimatedSize) {
+		return segmentFor(name).intern(name, estimatedSize);
+	}
+
+	@Override
+	public int size() {
+		int res = 0;
+		for(val segment : segments) {
+			res += segment.size();
+		}
+		return res;
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	public long getWeight() {
+		long res = 0;
+		for(val segment : segments) {
+			res += segment.weight();
+		}
+		return res;
+	}
+
+	public void clear() {
+		for(val segment : segments) {
+			segment.clear();
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * snapshot of interner counters
+	 */
+	@AllArgsConstructor
+	public static class Stats {
+		public final long hitCount;
+		/** count of names added by intern() */
+		public final long missCount;
+		/** count of get() not finding name, excluded from hitRate() */
+		public final long lookupMissCount;
+		public final long evictionCount;
+		/** sum of estimated sizes of names returned from the table, instead of keeping duplicate instances */
+		public final long bytesSaved;
+		public final int size;
+		public final long weight;
+
+		/**
+		 * @return ratio of hits, over hits of get() and intern() and misses of intern()
+		 */
+		public double hitRate() {
+			val requestCount = hitCount + missCount;
+			return (requestCount == 0)? 1.0 : (double) hitCount / requestCount;
+		}
+
+		@Override
+		public String toString() {
+			return "hits:" + hitCount + " misses:" + missCount + " (hit rate:" + String.format("%.3f", hitRate()) + ")"
+					+ " lookupMisses:" + lookupMissCount
+					+ " evictions:" + evictionCount + " bytesSaved:" + bytesSaved
+					+ " size:" + size + " weight:" + weight;
+		}
+	}
+
+	public Stats getStats() {
+		return new Stats(hitCount.sum(), missCount.sum(), lookupMissCount.sum(), evictionCount.sum(), bytesSaved.sum(), size(), getWeight());
+	}
+
+	public void resetStats() {
+		hitCount.reset();
+		missCount.reset();
+		lookupMissCount.reset();
+		evictionCount.reset();
+		bytesSaved.reset();
+	}
+
+}
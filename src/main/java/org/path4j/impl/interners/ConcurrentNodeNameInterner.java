@@ -0,0 +1,51 @@
+package org.path4j.impl.interners;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.path4j.NodeName;
+import org.path4j.encoder.NodeNameInterner;
+
+import lombok.val;
+
+/**
+ * interner for concurrent encoding threads: lock-free reads, 
+ * and O(1) amortized inserts locking only one bin of the hash table
+ */
+public class ConcurrentNodeNameInterner extends NodeNameInterner {
+
+	private final ConcurrentHashMap<NodeName,NodeName> interned;
+
+	// ------------------------------------------------------------------------
+
+	public ConcurrentNodeNameInterner() {
+		this.interned = new ConcurrentHashMap<>();
+	}
+
+	public ConcurrentNodeNameInterner(int initialCapacity) {
+		this.interned = new ConcurrentHashMap<>(initialCapacity);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public NodeName get(NodeName name) {
+		return interned.get(name);
+	}
+
+	@Override
+	public NodeName intern(NodeName name) {
+		// lookup first, avoid locking a bin when already interned
+		val found = interned.get(name);
+		if (found != null) {
+			return found;
+		}
+		val prev = interned.putIfAbsent(name, name);
+		return (prev != null)? prev : name;
+	}
+
+	@Override
+	public int size() {
+		return interned.size();
+	}
+
+}
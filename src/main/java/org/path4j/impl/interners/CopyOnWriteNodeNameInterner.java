@@ -0,0 +1,49 @@
+package org.path4j.impl.interners;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.path4j.NodeName;
+import org.path4j.encoder.NodeNameInterner;
+
+import lombok.val;
+
+/**
+ * interner for read-mostly and small tables: lock-free reads on an immutable HashMap,
+ * copied on each insert (O(n) per insert), and safely published through a volatile field
+ */
+public class CopyOnWriteNodeNameInterner extends NodeNameInterner {
+
+	private volatile Map<NodeName,NodeName> interned;
+
+	// ------------------------------------------------------------------------
+
+	public CopyOnWriteNodeNameInterner() {
+		this.interned = new HashMap<>();
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public NodeName get(NodeName name) {
+		return interned.get(name);
+	}
+
+	@Override
+	public synchronized NodeName intern(NodeName name) {
+		val found = interned.get(name);
+		if (found != null) {
+			return found;
+		}
+		val newInterned = new HashMap<>(interned);
+		newInterned.put(name, name);
+		this.interned = newInterned;
+		return name;
+	}
+
+	@Override
+	public int size() {
+		return interned.size();
+	}
+
+}
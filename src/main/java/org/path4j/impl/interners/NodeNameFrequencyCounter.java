@@ -0,0 +1,185 @@
+package org.path4j.impl.interners;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.path4j.NodeName;
+
+import lombok.val;
+
+/**
+ * approximate frequency counter of (name, path level), using a count-min sketch of fixed size.
+ *
+ * counters are halved periodically, so that frequency reflects recently encoded names.
+ *
+ * Concurrency: safe for concurrent threads, without locks.
+ * Only 1 in samplingRate increments (chosen at random per thread) write to the shared table,
+ * other ones only read it, so that concurrent encoding threads rarely write to the same cache lines.
+ * Table writes are atomic (CAS), so no sampled increment is lost, even during halving.
+ * Halving is done by the single thread resetting the increment count by CAS, so it happens once per sampleSize increments.
+ * Estimated frequencies are counters multiplied by samplingRate: exact for samplingRate 1,
+ * otherwise approximate, which is acceptable for detecting hot names
+ */
+public class NodeNameFrequencyCounter {
+
+	private static final int DEPTH = 4;
+
+	private static final int[] SEEDS = { 0x97cb3127, 0xb7e15163, 0x243f6a89, 0x9e3779b9 };
+
+	private final AtomicIntegerArray table;
+
+	private final int widthMask;
+
+	/** count of sampled increments before halving all counters */
+	private final int sampleSize;
+
+	/** 1 increment out of samplingRate is recorded in table */
+	private final int samplingRate;
+
+	private final AtomicInteger incrementCount = new AtomicInteger();
+
+	/** minimum estimated frequency for a name to be hot */
+	private final int hotMinFrequency;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @param width count of counters per hash function, rounded up to a power of 2, should be close to the count of distinct names to track
+	 * @param hotMinFrequency minimum estimated frequency for incrementAndCheckHot() to return true
+	 */
+	public NodeNameFrequencyCounter(int width, int hotMinFrequency) {
+		this(width, hotMinFrequency, 1);
+	}
+
+	/**
+	 * @param samplingRate record 1 increment out of samplingRate, should be lower than hotMinFrequency
+	 */
+	public NodeNameFrequencyCounter(int width, int hotMinFrequency, int samplingRate) {
+		if (samplingRate < 1) {
+			throw new IllegalArgumentException("samplingRate: " + samplingRate + ", expecting >= 1");
+		}
+		int w = 16;
+		while(w < width) {
+			w <<= 1;
+		}
+		this.table = new AtomicIntegerArray(DEPTH * w);
+		this.widthMask = w - 1;
+		this.sampleSize = 10 * w;
+		this.samplingRate = samplingRate;
+		this.hotMinFrequency = hotMinFrequency;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public int getHotMinFrequency() {
+		return hotMinFrequency;
+	}
+
+	public int getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * @return estimated frequency of name at pathLevel
+	 */
+	public int frequency(NodeName name, int pathLevel) {
+		return frequency(name.hashCode(), pathLevel);
+	}
+
+	/**
+	 * same as frequency(name, pathLevel), given name.hashCode()
+	 */
+	public int frequency(int nameHash, int pathLevel) {
+		int itemHash = itemHash(nameHash, pathLevel);
+		int res = Integer.MAX_VALUE;
+		for(int i = 0; i < DEPTH; i++) {
+			res = Math.min(res, table.get(indexOf(itemHash, i)));
+		}
+		return estimate(res);
+	}
+
+	/**
+	 * @return estimated frequency of name at pathLevel, after increment
+	 */
+	public int increment(NodeName name, int pathLevel) {
+		return increment(name.hashCode(), pathLevel);
+	}
+
+	/**
+	 * same as increment(name, pathLevel), given name.hashCode(): for names not encoded yet
+	 */
+	public int increment(int nameHash, int pathLevel) {
+		if (samplingRate != 1 && ThreadLocalRandom.current().nextInt(samplingRate) != 0) {
+			return frequency(nameHash, pathLevel);
+		}
+		int itemHash = itemHash(nameHash, pathLevel);
+		int res = Integer.MAX_VALUE;
+		for(int i = 0; i < DEPTH; i++) {
+			res = Math.min(res, incrementAt(indexOf(itemHash, i)));
+		}
+		int count = incrementCount.incrementAndGet();
+		if (count >= sampleSize && incrementCount.compareAndSet(count, 0)) {
+			halve();
+		}
+		return estimate(res);
+	}
+
+	public boolean incrementAndCheckHot(NodeName name, int pathLevel) {
+		return increment(name, pathLevel) >= hotMinFrequency;
+	}
+
+	public boolean incrementAndCheckHot(int nameHash, int pathLevel) {
+		return increment(nameHash, pathLevel) >= hotMinFrequency;
+	}
+
+	/**
+	 * @return true if estimated frequency of name at pathLevel is at least hotMinFrequency, without incrementing it
+	 */
+	public boolean isHot(int nameHash, int pathLevel) {
+		return frequency(nameHash, pathLevel) >= hotMinFrequency;
+	}
+
+	/**
+	 * @return counter after increment, saturated at Integer.MAX_VALUE
+	 */
+	private int incrementAt(int index) {
+		for(;;) {
+			int count = table.get(index);
+			if (count == Integer.MAX_VALUE) {
+				return count;
+			}
+			if (table.compareAndSet(index, count, count + 1)) {
+				return count + 1;
+			}
+		}
+	}
+
+	private void halve() {
+		val len = table.length();
+		for(int i = 0; i < len; i++) {
+			for(;;) {
+				int count = table.get(i);
+				if (table.compareAndSet(i, count, count >>> 1)) {
+					break;
+				}
+			}
+		}
+	}
+
+	private int estimate(int count) {
+		val res = (long) count * samplingRate;
+		return (int) Math.min(res, Integer.MAX_VALUE);
+	}
+
+	private static int itemHash(int nameHash, int pathLevel) {
+		return nameHash * 31 + pathLevel;
+	}
+
+	private int indexOf(int itemHash, int i) {
+		int h = itemHash * SEEDS[i];
+		h ^= (h >>> 17);
+		return i * (widthMask + 1) + (h & widthMask);
+	}
+
+}
@@ -0,0 +1,285 @@
+package org.path4j.impl.interners;
+
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_IntSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_ObjectHeaderSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.VM_RefSize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedArraySize;
+import static org.path4j.impl.encoders.NodeNameEncoderConstants.alignedObjectSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.path4j.NodeNamesPath;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * weight-bounded interner of canonical NodeNamesPath instances, for paths kept as keys/values of several indexes.
+ *
+ * weight of a path is the size in bytes of its NodeNamesPath object and array.
+ * Table is striped into segments, each one an access-ordered LinkedHashMap evicting 
+ * its least-recently-used paths when over its share of maxWeight (same as BoundedNodeNameInterner).
+ *
+ * When a new path is added, its parent path is interned too, and the new canonical path
+ * reuses the NodeName instances of its canonical parent: all canonical paths of a directory
+ * share the same element instances (NodeName[] arrays themselves can not share prefixes, 
+ * see LinkedNodeNamesPath for fully shared prefixes)
+ */
+public class NodeNamesPathInterner {
+
+	private static final int DEFAULT_SEGMENT_COUNT = 16;
+
+	private final Segment[] segments;
+
+	private final long maxWeight;
+
+	private final boolean shareParentElements;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder bytesSaved = new LongAdder();
+	private final LongAdder sharedElementCount = new LongAdder();
+
+	// ------------------------------------------------------------------------
+
+	public NodeNamesPathInterner(long maxWeight) {
+		this(maxWeight, DEFAULT_SEGMENT_COUNT, true);
+	}
+
+	/**
+	 * @param maxWeight maximum sum of sizes of interned paths
+	 * @param segmentCount count of independently locked segments, rounded up to a power of 2
+	 * @param shareParentElements true to intern parent paths, and reuse their NodeName instances
+	 */
+	public NodeNamesPathInterner(long maxWeight, int segmentCount, boolean shareParentElements) {
+		int count = 1;
+		while(count < segmentCount) {
+			count <<= 1;
+		}
+		this.maxWeight = maxWeight;
+		this.shareParentElements = shareParentElements;
+		this.segments = new Segment[count];
+		val segmentMaxWeight = Math.max(1, maxWeight / count);
+		for(int i = 0; i < count; i++) {
+			segments[i] = new Segment(segmentMaxWeight);
+		}
+	}
+
+	/**
+	 * @return size in bytes of NodeNamesPath object and its array, excluding shared NodeName elements
+	 */
+	public static int pathWeight(NodeNamesPath path) {
+		return alignedObjectSize(VM_ObjectHeaderSize + VM_RefSize + VM_IntSize)
+				+ alignedArraySize(VM_RefSize, path.size());
+	}
+
+	// ------------------------------------------------------------------------
+
+	@AllArgsConstructor
+	private static class Entry {
+		final NodeNamesPath path;
+		final int weight;
+	}
+
+	private class Segment {
+		private final long maxWeight;
+		private long weight;
+		private final LinkedHashMap<NodeNamesPath,Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		Segment(long maxWeight) {
+			this.maxWeight = maxWeight;
+		}
+
+		synchronized NodeNamesPath get(NodeNamesPath path) {
+			val found = entries.get(path);
+			return (found != null)? found.path : null;
+		}
+
+		/**
+		 * @return already present path, or null after adding path
+		 */
+		synchronized NodeNamesPath putIfAbsent(NodeNamesPath path, int pathWeight) {
+			val found = entries.get(path);
+			if (found != null) {
+				return found.path;
+			}
+			entries.put(path, new Entry(path, pathWeight));
+			weight += pathWeight;
+			evictOverWeight();
+			return null;
+		}
+
+		private void evictOverWeight() {
+			// keep at least the last inserted path, even if heavier than maxWeight
+			Iterator<Entry> iter = entries.values().iterator();
+			while(weight > maxWeight && entries.size() > 1) {
+				val eldest = iter.next();
+				iter.remove();
+				weight -= eldest.weight;
+				evictionCount.increment();
+			}
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+
+		synchronized long weight() {
+			return weight;
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			weight = 0;
+		}
+	}
+
+	private Segment segmentFor(NodeNamesPath path) {
+		int h = path.hashCode();
+		h ^= (h >>> 16); // spread high bits, as in HashMap
+		return segments[h & (segments.length - 1)];
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return canonical path equal to path, or null if not present
+	 */
+	public NodeNamesPath get(NodeNamesPath path) {
+		return segmentFor(path).get(path);
+	}
+
+	/**
+	 * @return canonical path equal to path: a previously interned path, or a new one added to the table
+	 */
+	public NodeNamesPath intern(NodeNamesPath path) {
+		if (path.size() == 0) {
+			return NodeNamesPath.ROOT;
+		}
+		val segment = segmentFor(path);
+		val found = segment.get(path);
+		if (found != null) {
+			hitCount.increment();
+			bytesSaved.add(pathWeight(path));
+			return found;
+		}
+		missCount.increment();
+		return internMissing(segment, path);
+	}
+
+	/**
+	 * same as intern(), without counting hit/miss: for parent paths interned on behalf of a child path
+	 */
+	private NodeNamesPath internParent(NodeNamesPath path) {
+		if (path.size() == 0) {
+			return NodeNamesPath.ROOT;
+		}
+		val segment = segmentFor(path);
+		val found = segment.get(path);
+		if (found != null) {
+			return found;
+		}
+		return internMissing(segment, path);
+	}
+
+	private NodeNamesPath internMissing(Segment segment, NodeNamesPath path) {
+		val len = path.size();
+		NodeNamesPath candidate = path;
+		if (shareParentElements && len > 1) {
+			val parent = internParent(path.toParent());
+			if (! sharesElements(path, parent)) {
+				candidate = parent.toChild(path.last());
+				sharedElementCount.add(len - 1);
+			}
+		}
+		val prev = segment.putIfAbsent(candidate, pathWeight(candidate));
+		return (prev != null)? prev : candidate;
+	}
+
+	private static boolean sharesElements(NodeNamesPath path, NodeNamesPath parent) {
+		val parentLen = parent.size();
+		for(int i = 0; i < parentLen; i++) {
+			if (path.get(i) != parent.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int size() {
+		int res = 0;
+		for(val segment : segments) {
+			res += segment.size();
+		}
+		return res;
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	public long getWeight() {
+		long res = 0;
+		for(val segment : segments) {
+			res += segment.weight();
+		}
+		return res;
+	}
+
+	public void clear() {
+		for(val segment : segments) {
+			segment.clear();
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * snapshot of interner counters
+	 */
+	@AllArgsConstructor
+	public static class Stats {
+		public final long hitCount;
+		public final long missCount;
+		public final long evictionCount;
+		/** sum of sizes of duplicate paths replaced by canonical instances */
+		public final long bytesSaved;
+		/** count of path elements replaced by the instance of their canonical parent */
+		public final long sharedElementCount;
+		public final int size;
+		public final long weight;
+
+		/**
+		 * @return ratio of interned paths that were duplicates of a canonical path
+		 */
+		public double dedupRatio() {
+			val requestCount = hitCount + missCount;
+			return (requestCount == 0)? 0.0 : (double) hitCount / requestCount;
+		}
+
+		@Override
+		public String toString() {
+			return "hits:" + hitCount + " misses:" + missCount + " (dedup ratio:" + String.format("%.3f", dedupRatio()) + ")"
+					+ " evictions:" + evictionCount + " bytesSaved:" + bytesSaved
+					+ " sharedElements:" + sharedElementCount
+					+ " size:" + size + " weight:" + weight;
+		}
+	}
+
+	public Stats getStats() {
+		return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), bytesSaved.sum(), sharedElementCount.sum(), 
+				size(), getWeight());
+	}
+
+	public void resetStats() {
+		hitCount.reset();
+		missCount.reset();
+		evictionCount.reset();
+		bytesSaved.reset();
+		sharedElementCount.reset();
+	}
+
+}
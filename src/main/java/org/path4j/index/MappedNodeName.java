@@ -0,0 +1,96 @@
+package org.path4j.index;
+
+import java.nio.ByteBuffer;
+
+import org.path4j.NodeName;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * view on a name of a MappedPathIndex, by its name id: chars are read from the mapped file.
+ *
+ * names are unique per index, so equals() between names of the same index compares ids only
+ */
+@AllArgsConstructor
+public class MappedNodeName extends NodeName {
+
+	public final MappedPathIndex index;
+	public final int nameId;
+
+	@Override
+	public int length() {
+		return index.nameLength(nameId);
+	}
+
+	/**
+	 * charAt() is O(1) for ascii names only
+	 */
+	@Override
+	public boolean isRandomAccess() {
+		return index.nameIsAscii(nameId);
+	}
+
+	@Override
+	public char charAt(int i) {
+		return index.nameCharAt(nameId, i);
+	}
+
+	@Override
+	public String toText() {
+		StringBuilder sb = new StringBuilder(length());
+		index.nameAppendTo(nameId, sb);
+		return sb.toString();
+	}
+
+	@Override
+	public void appendTo(StringBuilder sb) {
+		index.nameAppendTo(nameId, sb);
+	}
+
+	@Override
+	public int utfSize() {
+		return index.nameUtfSize(nameId);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer out) {
+		checkRemaining(out, utfSize());
+		index.nameWriteTo(nameId, out);
+	}
+
+	// sequential access for contentEquals() / compareTo(): positions are byte offsets in mapped name entries
+
+	@Override
+	protected int firstCharPos() {
+		return index.nameFirstCharPos(nameId);
+	}
+
+	@Override
+	protected char charAtPos(int pos) {
+		return index.nameCharAtPos(pos);
+	}
+
+	@Override
+	protected int nextCharPos(int pos) {
+		return index.nameNextCharPos(pos);
+	}
+
+	@Override
+	public int hashCode() {
+		return index.nameHash(nameId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof MappedNodeName) {
+			MappedNodeName other = (MappedNodeName) obj;
+			if (index == other.index) {
+				return nameId == other.nameId;
+			}
+		}
+		return super.equals(obj);
+	}
+
+}
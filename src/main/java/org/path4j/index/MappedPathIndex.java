@@ -0,0 +1,406 @@
+package org.path4j.index;
+
+import static org.path4j.index.MappedPathIndexWriter.HEADER_SIZE;
+import static org.path4j.index.MappedPathIndexWriter.MAGIC;
+import static org.path4j.index.MappedPathIndexWriter.NAME_ENTRY_HEADER_SIZE;
+import static org.path4j.index.MappedPathIndexWriter.NODE_RECORD_INTS;
+import static org.path4j.index.MappedPathIndexWriter.PATH_FLAG;
+import static org.path4j.index.MappedPathIndexWriter.VERSION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.path4j.NodeName;
+import org.path4j.NodeNamesPath;
+
+import lombok.val;
+
+/**
+ * read-only path index file, memory mapped: opening it only maps the file, without reading names nor paths.
+ *
+ * paths are nodes identified by an int id (root is 0), with parent id and name id.
+ * Names are read from the mapped file on demand, as MappedNodeName views.
+ * See MappedPathIndexWriter for the file format.
+ *
+ * thread-safe (read-only, absolute reads only). 
+ * Each section of the file (name offsets, name entries, nodes) must be smaller than 2GB.
+ */
+public class MappedPathIndex {
+
+	public static final int ROOT_ID = 0;
+	public static final int NOT_FOUND = -1;
+
+	private final int nameCount;
+	private final int nodeCount;
+	private final int pathCount;
+
+	private final IntBuffer nameOffsets;
+	private final ByteBuffer nameEntries;
+	private final IntBuffer nodes;
+
+	// ------------------------------------------------------------------------
+
+	private MappedPathIndex(int nameCount, int nodeCount, int pathCount,
+			IntBuffer nameOffsets, ByteBuffer nameEntries, IntBuffer nodes) {
+		this.nameCount = nameCount;
+		this.nodeCount = nodeCount;
+		this.pathCount = pathCount;
+		this.nameOffsets = nameOffsets;
+		this.nameEntries = nameEntries;
+		this.nodes = nodes;
+	}
+
+	public static MappedPathIndex open(Path file) throws IOException {
+		try (val channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			val header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			val magic = header.getInt();
+			if (magic != MAGIC) {
+				throw new IOException("not a path index file, bad magic: " + Integer.toHexString(magic));
+			}
+			val version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("unsupported path index version: " + version);
+			}
+			val nameCount = header.getInt();
+			val nodeCount = header.getInt();
+			val pathCount = header.getInt();
+			val nameOffsetsPos = header.getLong();
+			val nameEntriesPos = header.getLong();
+			val nameEntriesLength = header.getLong();
+			val nodesPos = header.getLong();
+
+			val nameOffsets = channel.map(FileChannel.MapMode.READ_ONLY, nameOffsetsPos, 4L * nameCount).asIntBuffer();
+			val nameEntries = channel.map(FileChannel.MapMode.READ_ONLY, nameEntriesPos, nameEntriesLength);
+			val nodes = channel.map(FileChannel.MapMode.READ_ONLY, nodesPos, 4L * NODE_RECORD_INTS * (nodeCount + 1)).asIntBuffer();
+			return new MappedPathIndex(nameCount, nodeCount, pathCount, nameOffsets, nameEntries, nodes);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/** count of distinct names */
+	public int getNameCount() {
+		return nameCount;
+	}
+
+	/** count of nodes: paths of the indexed set, and their parent paths */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/** count of paths of the indexed set */
+	public int size() {
+		return pathCount;
+	}
+
+	// names
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return lightweight view on name, chars are read from mapped file
+	 */
+	public MappedNodeName name(int nameId) {
+		return new MappedNodeName(this, nameId);
+	}
+
+	/**
+	 * @return id of name, using binary search in sorted names, or NOT_FOUND
+	 */
+	public int nameIdOf(CharSequence name) {
+		if (name instanceof MappedNodeName && ((MappedNodeName) name).index == this) {
+			return ((MappedNodeName) name).nameId;
+		}
+		int low = 0;
+		int high = nameCount - 1;
+		while(low <= high) {
+			val mid = (low + high) >>> 1;
+			val cmp = compareName(mid, name);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	/*pp*/ int nameHash(int nameId) {
+		return nameEntries.getInt(nameOffsets.get(nameId));
+	}
+
+	/*pp*/ int nameLength(int nameId) {
+		return nameEntries.getChar(nameOffsets.get(nameId) + 4);
+	}
+
+	/*pp*/ boolean nameIsAscii(int nameId) {
+		val p = nameOffsets.get(nameId);
+		return nameEntries.getChar(p + 6) == nameEntries.getChar(p + 4);
+	}
+
+	/*pp*/ char nameCharAt(int nameId, int index) {
+		val p = nameOffsets.get(nameId);
+		val length = (int) nameEntries.getChar(p + 4);
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+		}
+		int bytePos = p + NAME_ENTRY_HEADER_SIZE;
+		if (nameEntries.getChar(p + 6) == length) {
+			return (char) nameEntries.get(bytePos + index); // ascii
+		}
+		for(int i = 0; i < index; i++) {
+			bytePos += utfCharByteCount(nameEntries.get(bytePos));
+		}
+		return utfCharAt(bytePos);
+	}
+
+	/*pp*/ void nameAppendTo(int nameId, StringBuilder sb) {
+		val p = nameOffsets.get(nameId);
+		val length = (int) nameEntries.getChar(p + 4);
+		int bytePos = p + NAME_ENTRY_HEADER_SIZE;
+		for(int i = 0; i < length; i++) {
+			sb.append(utfCharAt(bytePos));
+			bytePos += utfCharByteCount(nameEntries.get(bytePos));
+		}
+	}
+
+	/**
+	 * bulk copy of stored utf8Length and "modified UTF-8" bytes, same as NodeName.writeTo()
+	 */
+	/*pp*/ void nameWriteTo(int nameId, ByteBuffer out) {
+		val p = nameOffsets.get(nameId);
+		val utf8Length = (int) nameEntries.getChar(p + 6);
+		val src = nameEntries.duplicate();
+		src.limit(p + NAME_ENTRY_HEADER_SIZE + utf8Length);
+		src.position(p + 6);
+		out.put(src);
+	}
+
+	/*pp*/ int nameUtfSize(int nameId) {
+		return 2 + nameEntries.getChar(nameOffsets.get(nameId) + 6);
+	}
+
+	// sequential char access, see NodeName.firstCharPos()
+
+	/*pp*/ int nameFirstCharPos(int nameId) {
+		return nameOffsets.get(nameId) + NAME_ENTRY_HEADER_SIZE;
+	}
+
+	/*pp*/ char nameCharAtPos(int pos) {
+		return utfCharAt(pos);
+	}
+
+	/*pp*/ int nameNextCharPos(int pos) {
+		return pos + utfCharByteCount(nameEntries.get(pos));
+	}
+
+	/**
+	 * same as name(nameId).compareTo(other), without allocation
+	 */
+	private int compareName(int nameId, CharSequence other) {
+		val p = nameOffsets.get(nameId);
+		val length = (int) nameEntries.getChar(p + 4);
+		val otherLen = other.length();
+		val minLen = Math.min(length, otherLen);
+		int bytePos = p + NAME_ENTRY_HEADER_SIZE;
+		for(int i = 0; i < minLen; i++) {
+			val ch = utfCharAt(bytePos);
+			val otherCh = other.charAt(i);
+			if (ch != otherCh) {
+				return ch - otherCh;
+			}
+			bytePos += utfCharByteCount(nameEntries.get(bytePos));
+		}
+		return length - otherLen;
+	}
+
+	private static int utfCharByteCount(byte b) {
+		if (b >= 0) {
+			return 1;
+		}
+		return ((b & 0xE0) == 0xC0)? 2 : 3;
+	}
+
+	private char utfCharAt(int pos) {
+		val b = nameEntries.get(pos);
+		if (b >= 0) {
+			return (char) b;
+		} else if ((b & 0xE0) == 0xC0) {
+			return (char) (((b & 0x1F) << 6) | (nameEntries.get(pos + 1) & 0x3F));
+		} else {
+			return (char) (((b & 0x0F) << 12) | ((nameEntries.get(pos + 1) & 0x3F) << 6) | (nameEntries.get(pos + 2) & 0x3F));
+		}
+	}
+
+	// nodes
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return parent node id, or NOT_FOUND for root
+	 */
+	public int parentOf(int nodeId) {
+		return nodes.get(NODE_RECORD_INTS * nodeId);
+	}
+
+	/**
+	 * @return name id of node, or NOT_FOUND for root
+	 */
+	public int nameIdOfNode(int nodeId) {
+		val nameId = nodes.get(NODE_RECORD_INTS * nodeId + 1);
+		return (nodeId == ROOT_ID)? NOT_FOUND : (nameId & ~PATH_FLAG);
+	}
+
+	/**
+	 * @return name of node (last element of its path), or null for root
+	 */
+	public MappedNodeName nameOfNode(int nodeId) {
+		return (nodeId == ROOT_ID)? null : name(nameIdOfNode(nodeId));
+	}
+
+	/**
+	 * @return true if node is a path of the indexed set, false if only a parent of such paths
+	 */
+	public boolean isPath(int nodeId) {
+		return (nodes.get(NODE_RECORD_INTS * nodeId + 1) & PATH_FLAG) != 0;
+	}
+
+	/*pp*/ int firstChildOf(int nodeId) {
+		return nodes.get(NODE_RECORD_INTS * nodeId + 2);
+	}
+
+	public int childCount(int nodeId) {
+		return firstChildOf(nodeId + 1) - firstChildOf(nodeId);
+	}
+
+	/**
+	 * @return child node id, using binary search of name id in children of node, or NOT_FOUND
+	 */
+	public int childOf(int nodeId, int nameId) {
+		int low = firstChildOf(nodeId);
+		int high = firstChildOf(nodeId + 1) - 1;
+		while(low <= high) {
+			val mid = (low + high) >>> 1;
+			val midNameId = nodes.get(NODE_RECORD_INTS * mid + 1) & ~PATH_FLAG;
+			if (midNameId < nameId) {
+				low = mid + 1;
+			} else if (midNameId > nameId) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * @return node id of path (a path of the set, or one of their parents), or NOT_FOUND
+	 */
+	public int lookup(NodeNamesPath path) {
+		int nodeId = ROOT_ID;
+		val len = path.size();
+		for(int i = 0; i < len; i++) {
+			val nameId = nameIdOf(path.get(i));
+			if (nameId == NOT_FOUND) {
+				return NOT_FOUND;
+			}
+			nodeId = childOf(nodeId, nameId);
+			if (nodeId == NOT_FOUND) {
+				return NOT_FOUND;
+			}
+		}
+		return nodeId;
+	}
+
+	/**
+	 * @return true if path is in the indexed set
+	 */
+	public boolean contains(NodeNamesPath path) {
+		val nodeId = lookup(path);
+		return nodeId != NOT_FOUND && isPath(nodeId);
+	}
+
+	/**
+	 * @return names of children of node, sorted
+	 */
+	public List<NodeName> childNames(int nodeId) {
+		val first = firstChildOf(nodeId);
+		val end = firstChildOf(nodeId + 1);
+		val res = new ArrayList<NodeName>(end - first);
+		for(int child = first; child < end; child++) {
+			res.add(name(nameIdOfNode(child)));
+		}
+		return res;
+	}
+
+	/**
+	 * @return names of children of path, sorted, or empty if path is not found
+	 */
+	public List<NodeName> childNames(NodeNamesPath path) {
+		val nodeId = lookup(path);
+		return (nodeId != NOT_FOUND)? childNames(nodeId) : new ArrayList<>();
+	}
+
+	/**
+	 * iterate on node ids of paths of the set starting with prefix (including prefix itself), depth-first, sorted
+	 */
+	public void forEachInSubtree(NodeNamesPath prefix, IntConsumer callback) {
+		val start = lookup(prefix);
+		if (start == NOT_FOUND) {
+			return;
+		}
+		int[] stack = new int[64];
+		int top = 0;
+		stack[top++] = start;
+		while(top > 0) {
+			val nodeId = stack[--top];
+			if (isPath(nodeId)) {
+				callback.accept(nodeId);
+			}
+			val first = firstChildOf(nodeId);
+			val end = firstChildOf(nodeId + 1);
+			if (top + end - first > stack.length) {
+				val grow = new int[Math.max(2 * stack.length, top + end - first)];
+				System.arraycopy(stack, 0, grow, 0, top);
+				stack = grow;
+			}
+			// push in reverse order, for visiting children sorted
+			for(int child = end - 1; child >= first; child--) {
+				stack[top++] = child;
+			}
+		}
+	}
+
+	public int depthOf(int nodeId) {
+		int depth = 0;
+		for(int id = nodeId; id != ROOT_ID; id = parentOf(id)) {
+			depth++;
+		}
+		return depth;
+	}
+
+	/**
+	 * @return path of node, with MappedNodeName views as elements
+	 */
+	public NodeNamesPath toPath(int nodeId) {
+		val depth = depthOf(nodeId);
+		if (depth == 0) {
+			return NodeNamesPath.ROOT;
+		}
+		val elements = new NodeName[depth];
+		int id = nodeId;
+		for(int i = depth - 1; i >= 0; i--) {
+			elements[i] = nameOfNode(id);
+			id = parentOf(id);
+		}
+		return NodeNamesPath.of(elements);
+	}
+
+}
@@ -0,0 +1,223 @@
+package org.path4j.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import org.path4j.NodeName;
+import org.path4j.NodeNamesPath;
+
+import lombok.val;
+
+/**
+ * writer of a read-only path index file, opened with MappedPathIndex.open().
+ *
+ * file format (big-endian):
+ * <pre>
+ * header: int magic "P4JI", int version, int nameCount, int nodeCount, int pathCount,
+ *         long nameOffsetsPos, long nameEntriesPos, long nameEntriesLength, long nodesPos
+ * name offsets: int[nameCount], offsets of entries relative to nameEntriesPos
+ * name entries, sorted as NodeName.compareTo(): { int hash, char length, char utf8Length, "modified UTF-8" bytes }
+ * nodes: { int parentId, int nameId (high bit set for a path of the set), int firstChildId } * (nodeCount + 1)
+ * </pre>
+ * node 0 is the root, nodes are numbered in breadth-first order, with children sorted by nameId,
+ * so that children of node i are the contiguous nodes [firstChildId(i), firstChildId(i + 1)).
+ * Last node record is a sentinel, holding only firstChildId = nodeCount.
+ */
+public class MappedPathIndexWriter {
+
+	/*pp*/ static final int MAGIC = 0x50344A49; // "P4JI"
+	/*pp*/ static final int VERSION = 1;
+	/*pp*/ static final int HEADER_SIZE = 5 * 4 + 4 * 8;
+
+	/*pp*/ static final int NODE_RECORD_INTS = 3;
+	/*pp*/ static final int PATH_FLAG = 0x80000000;
+
+	/*pp*/ static final int NAME_ENTRY_HEADER_SIZE = 8;
+
+	private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * temporary in-heap node of the trie of all prefixes
+	 */
+	private static class TmpNode {
+		final TmpNode parent;
+		final NodeName name;
+		int nameId;
+		boolean isPath;
+		List<TmpNode> children;
+		int id;
+
+		TmpNode(TmpNode parent, NodeName name) {
+			this.parent = parent;
+			this.name = name;
+		}
+	}
+
+	/**
+	 * identity of a child node, by parent instance and name
+	 */
+	private static class ChildKey {
+		final TmpNode parent;
+		final NodeName name;
+
+		ChildKey(TmpNode parent, NodeName name) {
+			this.parent = parent;
+			this.name = name;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(parent) + name.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			val other = (ChildKey) obj;
+			return parent == other.parent && name.equals(other.name);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	public static void write(Path file, Collection<NodeNamesPath> paths) throws IOException {
+		// build trie of all prefixes
+		val root = new TmpNode(null, null);
+		val childByKey = new HashMap<ChildKey,TmpNode>();
+		val nameIdByName = new HashMap<NodeName,int[]>();
+		for(val path : paths) {
+			TmpNode node = root;
+			val len = path.size();
+			for(int i = 0; i < len; i++) {
+				val name = path.get(i);
+				val key = new ChildKey(node, name);
+				TmpNode child = childByKey.get(key);
+				if (child == null) {
+					child = new TmpNode(node, name);
+					childByKey.put(key, child);
+					if (node.children == null) {
+						node.children = new ArrayList<>(2);
+					}
+					node.children.add(child);
+					nameIdByName.putIfAbsent(name, new int[1]);
+				}
+				node = child;
+			}
+			node.isPath = true;
+		}
+		childByKey.clear();
+
+		// sorted name dictionary
+		val names = new ArrayList<NodeName>(nameIdByName.keySet());
+		names.sort(null);
+		val nameCount = names.size();
+		for(int i = 0; i < nameCount; i++) {
+			nameIdByName.get(names.get(i))[0] = i;
+		}
+
+		// breadth-first numbering, children sorted by name id
+		val nodes = new ArrayList<TmpNode>();
+		nodes.add(root);
+		root.nameId = -1;
+		int pathCount = 0;
+		for(int i = 0; i < nodes.size(); i++) {
+			val node = nodes.get(i);
+			node.id = i;
+			if (node.isPath) {
+				pathCount++;
+			}
+			if (node.children != null) {
+				for(val child : node.children) {
+					child.nameId = nameIdByName.get(child.name)[0];
+				}
+				node.children.sort((left, right) -> Integer.compare(left.nameId, right.nameId));
+				nodes.addAll(node.children);
+			}
+		}
+		val nodeCount = nodes.size();
+
+		try (val channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			val buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+			// name offsets, then entries
+			val nameOffsetsPos = (long) HEADER_SIZE;
+			channel.position(nameOffsetsPos);
+			long entryOffset = 0;
+			for(val name : names) {
+				ensureRemaining(channel, buffer, 4);
+				if (entryOffset > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("too many names for index file, entries size: " + entryOffset);
+				}
+				buffer.putInt((int) entryOffset);
+				entryOffset += NAME_ENTRY_HEADER_SIZE - 2 + name.utfSize();
+			}
+			val nameEntriesPos = nameOffsetsPos + 4L * nameCount;
+			for(val name : names) {
+				val utfSize = name.utfSize();
+				ensureRemaining(channel, buffer, NAME_ENTRY_HEADER_SIZE - 2 + utfSize);
+				buffer.putInt(name.hashCode());
+				buffer.putChar((char) name.length());
+				name.writeTo(buffer); // utf8Length + bytes
+			}
+			val nameEntriesLength = entryOffset;
+
+			// nodes
+			val nodesPos = nameEntriesPos + nameEntriesLength;
+			int nextChildId = 1;
+			for(val node : nodes) {
+				ensureRemaining(channel, buffer, 4 * NODE_RECORD_INTS);
+				buffer.putInt((node.parent != null)? node.parent.id : -1);
+				buffer.putInt((node.isPath)? (node.nameId | PATH_FLAG) : (node.nameId & ~PATH_FLAG));
+				buffer.putInt(nextChildId);
+				if (node.children != null) {
+					nextChildId += node.children.size();
+				}
+			}
+			ensureRemaining(channel, buffer, 4 * NODE_RECORD_INTS);
+			buffer.putInt(-1);
+			buffer.putInt(-1);
+			buffer.putInt(nodeCount);
+			flush(channel, buffer);
+
+			// header, last
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(nameCount);
+			buffer.putInt(nodeCount);
+			buffer.putInt(pathCount);
+			buffer.putLong(nameOffsetsPos);
+			buffer.putLong(nameEntriesPos);
+			buffer.putLong(nameEntriesLength);
+			buffer.putLong(nodesPos);
+			buffer.flip();
+			channel.position(0);
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int size) throws IOException {
+		if (buffer.remaining() < size) {
+			flush(channel, buffer);
+			if (buffer.remaining() < size) {
+				throw new IllegalArgumentException("entry too large: " + size);
+			}
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+}
@@ -0,0 +1,405 @@
+package org.path4j.ingest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.path4j.NodeNameEncoder;
+import org.path4j.NodeNamesPath;
+import org.path4j.impl.interners.NodeNamesPathInterner;
+
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * streaming ingestion of raw "/" separated paths, in batches, encoded by worker threads.
+ *
+ * pipelined stages, connected by bounded queues:
+ * <ul>
+ * <li>encode (workerCount threads): tokenize and encode paths, using NodeNameEncoder.encodePath()</li>
+ * <li>intern (workerCount threads, only when an interner is given): replace paths by canonical instances</li>
+ * <li>emit (1 thread): call downstream consumer with encoded batches, in submission order</li>
+ * </ul>
+ * submit() blocks while the encode queue is full, so producers are slowed down to the pipeline throughput (backpressure).
+ *
+ * usage:
+ * <pre>
+ * val pipeline = new PathIngestionPipeline(encoder, interner, 4, 16, batch -&gt; index.addAll(batch));
+ * pipeline.start();
+ * for(..) pipeline.submit(rawPathsBatch);
+ * pipeline.finish();
+ * System.out.println(pipeline.getStats());
+ * </pre>
+ */
+public class PathIngestionPipeline {
+
+	private final NodeNameEncoder encoder;
+	private final NodeNamesPathInterner interner;
+	private final int workerCount;
+	private final Consumer<List<NodeNamesPath>> downstream;
+
+	private final BlockingQueue<Batch> encodeQueue;
+	private final BlockingQueue<Batch> internQueue;
+	private final BlockingQueue<Batch> emitQueue;
+
+	private final StageMetrics encodeMetrics = new StageMetrics("encode");
+	private final StageMetrics internMetrics = new StageMetrics("intern");
+	private final StageMetrics emitMetrics = new StageMetrics("emit");
+
+	/** submit to emit latency */
+	private final LongAdder latencyNanos = new LongAdder();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	private final List<Thread> threads = new CopyOnWriteArrayList<>();
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	/** guarded by encodeQueue */
+	private long nextSubmitSeq;
+	private boolean finished;
+
+	private volatile boolean started;
+	private volatile long startNanos;
+	private volatile long finishNanos;
+
+	/** period of checking for failed stages, while blocked in submit() */
+	private static final long FAILURE_CHECK_MILLIS = 100;
+
+	/** end of stream marker */
+	private static final Batch END = new Batch(-1, null, 0);
+
+	/**
+	 * batch of paths flowing through stages
+	 */
+	private static class Batch {
+		final long seq;
+		final List<String> rawPaths;
+		final long submitNanos;
+		NodeNamesPath[] paths;
+
+		Batch(long seq, List<String> rawPaths, long submitNanos) {
+			this.seq = seq;
+			this.rawPaths = rawPaths;
+			this.submitNanos = submitNanos;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @param interner optional interner of canonical paths, or null for no intern stage
+	 * @param workerCount count of threads for encode stage (and intern stage)
+	 * @param queueCapacity max count of batches waiting before each stage
+	 * @param downstream consumer of encoded batches, called from emit thread only
+	 */
+	public PathIngestionPipeline(NodeNameEncoder encoder, NodeNamesPathInterner interner, int workerCount, int queueCapacity,
+			Consumer<List<NodeNamesPath>> downstream) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("workerCount: " + workerCount + ", expecting >= 1");
+		}
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("queueCapacity: " + queueCapacity + ", expecting >= 1");
+		}
+		this.encoder = Objects.requireNonNull(encoder, "encoder");
+		this.interner = interner;
+		this.workerCount = workerCount;
+		this.downstream = Objects.requireNonNull(downstream, "downstream");
+		this.encodeQueue = new ArrayBlockingQueue<>(queueCapacity);
+		this.internQueue = (interner != null)? new ArrayBlockingQueue<>(queueCapacity) : null;
+		this.emitQueue = new ArrayBlockingQueue<>(queueCapacity);
+	}
+
+	public synchronized void start() {
+		if (started) {
+			throw new IllegalStateException("already started");
+		}
+		started = true;
+		startNanos = System.nanoTime();
+		val encodeOutput = (interner != null)? internQueue : emitQueue;
+		val encodeRunning = new AtomicInteger(workerCount);
+		for(int i = 0; i < workerCount; i++) {
+			startThread("path-encode-" + i, () -> runWorkers(encodeQueue, encodeOutput, encodeRunning, encodeMetrics, this::encodeBatch));
+		}
+		if (interner != null) {
+			val internRunning = new AtomicInteger(workerCount);
+			for(int i = 0; i < workerCount; i++) {
+				startThread("path-intern-" + i, () -> runWorkers(internQueue, emitQueue, internRunning, internMetrics, this::internBatch));
+			}
+		}
+		startThread("path-emit", this::runEmit);
+	}
+
+	private void startThread(String name, Runnable runnable) {
+		val thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		threads.add(thread);
+		thread.start();
+	}
+
+	/**
+	 * submit a batch of raw paths, blocking while the pipeline is full
+	 * @throws IllegalStateException when a stage or the downstream consumer failed
+	 */
+	public void submit(List<String> rawPaths) throws InterruptedException {
+		// sequence number and put in same order, and never after END
+		synchronized(encodeQueue) {
+			if (! started || finished) {
+				throw new IllegalStateException((finished)? "already finished" : "not started");
+			}
+			val batch = new Batch(nextSubmitSeq++, rawPaths, System.nanoTime());
+			do {
+				checkFailure();
+			} while(! encodeQueue.offer(batch, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * submit all raw paths of source, in batches of batchSize
+	 */
+	public void submitAll(Iterator<String> source, int batchSize) throws InterruptedException {
+		List<String> batch = new ArrayList<>(batchSize);
+		while(source.hasNext()) {
+			batch.add(source.next());
+			if (batch.size() == batchSize) {
+				submit(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		if (! batch.isEmpty()) {
+			submit(batch);
+		}
+	}
+
+	/**
+	 * signal end of input, and wait until all submitted batches are emitted downstream
+	 * @throws IllegalStateException when a stage or the downstream consumer failed
+	 */
+	public void finish() throws InterruptedException {
+		synchronized(encodeQueue) {
+			if (! started) {
+				throw new IllegalStateException("not started");
+			}
+			if (! finished) {
+				finished = true;
+				while(! encodeQueue.offer(END, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+					checkFailure();
+				}
+			}
+		}
+		for(val thread : threads) {
+			thread.join();
+		}
+		checkFailure();
+	}
+
+	private void checkFailure() {
+		val ex = failure.get();
+		if (ex != null) {
+			throw new IllegalStateException("path ingestion failed", ex);
+		}
+	}
+
+	private void fail(Throwable ex) {
+		failure.compareAndSet(null, ex);
+		for(val thread : threads) {
+			if (thread != Thread.currentThread()) {
+				thread.interrupt();
+			}
+		}
+	}
+
+	// stages
+	// ------------------------------------------------------------------------
+
+	private void encodeBatch(Batch batch) {
+		val rawPaths = batch.rawPaths;
+		val count = rawPaths.size();
+		val paths = new NodeNamesPath[count];
+		for(int i = 0; i < count; i++) {
+			paths[i] = encoder.encodePath(rawPaths.get(i));
+		}
+		batch.paths = paths;
+	}
+
+	private void internBatch(Batch batch) {
+		val paths = batch.paths;
+		for(int i = 0; i < paths.length; i++) {
+			paths[i] = interner.intern(paths[i]);
+		}
+	}
+
+	/**
+	 * worker loop of a parallel stage: last worker receiving END forwards it to next stage
+	 */
+	private void runWorkers(BlockingQueue<Batch> input, BlockingQueue<Batch> output, AtomicInteger running, 
+			StageMetrics metrics, Consumer<Batch> stage) {
+		try {
+			for(;;) {
+				val batch = input.take();
+				if (batch == END) {
+					input.put(END); // for sibling workers
+					if (running.decrementAndGet() == 0) {
+						input.clear();
+						output.put(END);
+					}
+					return;
+				}
+				val start = System.nanoTime();
+				stage.accept(batch);
+				metrics.add(batch.rawPaths.size(), System.nanoTime() - start);
+				output.put(batch);
+			}
+		} catch(Throwable ex) {
+			fail(ex);
+		}
+	}
+
+	/**
+	 * single thread emitting batches in submission order, using a reorder buffer 
+	 * (bounded by the count of batches in flight in queues)
+	 */
+	private void runEmit() {
+		try {
+			val pending = new HashMap<Long,Batch>();
+			long nextSeq = 0;
+			for(;;) {
+				val batch = emitQueue.take();
+				if (batch == END) {
+					break;
+				}
+				pending.put(batch.seq, batch);
+				Batch ready;
+				while((ready = pending.remove(nextSeq)) != null) {
+					nextSeq++;
+					val start = System.nanoTime();
+					downstream.accept(Arrays.asList(ready.paths));
+					val end = System.nanoTime();
+					emitMetrics.add(ready.paths.length, end - start);
+					val latency = end - ready.submitNanos;
+					latencyNanos.add(latency);
+					maxLatencyNanos.accumulateAndGet(latency, Math::max);
+				}
+			}
+		} catch(Throwable ex) {
+			fail(ex);
+		} finally {
+			finishNanos = System.nanoTime();
+		}
+	}
+
+	// metrics
+	// ------------------------------------------------------------------------
+
+	private static class StageMetrics {
+		final String name;
+		final LongAdder batchCount = new LongAdder();
+		final LongAdder pathCount = new LongAdder();
+		final LongAdder busyNanos = new LongAdder();
+		final AtomicLong maxBatchNanos = new AtomicLong();
+
+		StageMetrics(String name) {
+			this.name = name;
+		}
+
+		void add(int paths, long nanos) {
+			batchCount.increment();
+			pathCount.add(paths);
+			busyNanos.add(nanos);
+			maxBatchNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		StageStats snapshot(int queueSize) {
+			return new StageStats(name, batchCount.sum(), pathCount.sum(), busyNanos.sum(), maxBatchNanos.get(), queueSize);
+		}
+	}
+
+	/**
+	 * snapshot of counters of a stage
+	 */
+	@AllArgsConstructor
+	public static class StageStats {
+		public final String name;
+		public final long batchCount;
+		public final long pathCount;
+		/** sum of processing time of batches, over all threads of stage */
+		public final long busyNanos;
+		public final long maxBatchNanos;
+		/** count of batches waiting in input queue of stage */
+		public final int queueSize;
+
+		/** throughput of a single thread of stage, excluding waits */
+		public double pathsPerBusySecond() {
+			return (busyNanos == 0)? 0.0 : pathCount * 1e9 / busyNanos;
+		}
+
+		public double avgBatchMillis() {
+			return (batchCount == 0)? 0.0 : busyNanos / 1e6 / batchCount;
+		}
+
+		@Override
+		public String toString() {
+			return name + ": batches:" + batchCount + " paths:" + pathCount 
+					+ String.format(" busy:%.1fms (%.0f paths/s/thread) avg:%.3fms max:%.3fms", 
+							busyNanos / 1e6, pathsPerBusySecond(), avgBatchMillis(), maxBatchNanos / 1e6)
+					+ " queued:" + queueSize;
+		}
+	}
+
+	/**
+	 * snapshot of counters of all stages
+	 */
+	@AllArgsConstructor
+	public static class Stats {
+		public final List<StageStats> stages;
+		public final long elapsedNanos;
+		public final long emittedPathCount;
+		public final long emittedBatchCount;
+		/** sum of latencies from submit() to emit, per batch */
+		public final long latencyNanos;
+		public final long maxLatencyNanos;
+
+		public double pathsPerSecond() {
+			return (elapsedNanos == 0)? 0.0 : emittedPathCount * 1e9 / elapsedNanos;
+		}
+
+		public double avgLatencyMillis() {
+			return (emittedBatchCount == 0)? 0.0 : latencyNanos / 1e6 / emittedBatchCount;
+		}
+
+		@Override
+		public String toString() {
+			val sb = new StringBuilder();
+			sb.append(String.format("paths:%d in %.1fms (%.0f paths/s) batch latency avg:%.3fms max:%.3fms", 
+					emittedPathCount, elapsedNanos / 1e6, pathsPerSecond(), avgLatencyMillis(), maxLatencyNanos / 1e6));
+			for(val stage : stages) {
+				sb.append("\n  ").append(stage);
+			}
+			return sb.toString();
+		}
+	}
+
+	public Stats getStats() {
+		val stages = new ArrayList<StageStats>();
+		stages.add(encodeMetrics.snapshot(encodeQueue.size()));
+		if (interner != null) {
+			stages.add(internMetrics.snapshot(internQueue.size()));
+		}
+		stages.add(emitMetrics.snapshot(emitQueue.size()));
+		val end = (finishNanos != 0)? finishNanos : System.nanoTime();
+		val elapsed = (startNanos != 0)? end - startNanos : 0;
+		return new Stats(stages, elapsed, emitMetrics.pathCount.sum(), emitMetrics.batchCount.sum(), 
+				latencyNanos.sum(), maxLatencyNanos.get());
+	}
+
+}
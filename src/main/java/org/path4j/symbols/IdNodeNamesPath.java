@@ -0,0 +1,364 @@
+package org.path4j.symbols;
+
+import java.util.Arrays;
+
+import org.path4j.NodeName;
+import org.path4j.NodeNamesPath;
+
+import lombok.val;
+
+/**
+ * (immutable) value-object path, represented as name ids in a NodeNameSymbolTable
+ *
+ * same operations as NodeNamesPath, implemented on ids: 
+ * equals(), startsWith() and commonPathOf() compare bytes, without NodeName dereference.
+ * paths of different symbol tables are never equal
+ *
+ * ids are packed as unsigned varint bytes (7 bits per byte, high bit set on all bytes but the last one of an id),
+ * so ids lower than 128 (the first names interned in the symbol table) take 1 byte, lower than 16384 take 2 bytes.
+ * A path of 8 such names takes a 24 bytes byte[], where an int[] would take 48 bytes, same as a NodeName[] with compressed oops.
+ * Trade-off: size(), getId(i) and get(i) are O(size) instead of O(1), as ids are decoded from start.
+ * Iterating or comparing whole paths is not slower
+ */
+public final class IdNodeNamesPath {
+
+	private static final int HASH_PRIME = 31;
+
+	/** multiplicative inverse of HASH_PRIME modulo 2^32, for removing last element from hashCode */
+	private static final int HASH_PRIME_INVERSE = 0xbdef7bdf;
+
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	private final NodeNameSymbolTable symbols;
+
+	/** varint packed ids, see class doc */
+	private final byte[] idBytes;
+
+	/**
+	 * cached hashCode, same as Arrays.hashCode() of ids, or 0 if not computed yet
+	 * (racy single-check: recomputing it from another thread gives the same value)
+	 */
+	private int hashCode;
+
+	// ------------------------------------------------------------------------
+
+	private IdNodeNamesPath(NodeNameSymbolTable symbols, byte[] idBytes, int hashCode) {
+		this.symbols = symbols;
+		this.idBytes = idBytes;
+		this.hashCode = hashCode;
+	}
+
+	public static IdNodeNamesPath root(NodeNameSymbolTable symbols) {
+		return new IdNodeNamesPath(symbols, EMPTY_BYTES, 0);
+	}
+
+	public static IdNodeNamesPath of(NodeNameSymbolTable symbols, int... ids) {
+		int byteLen = 0;
+		for(val id : ids) {
+			byteLen += varIntSize(id);
+		}
+		val bytes = new byte[byteLen];
+		int pos = 0;
+		for(val id : ids) {
+			pos = putVarInt(bytes, pos, id);
+		}
+		return new IdNodeNamesPath(symbols, bytes, 0);
+	}
+
+	// ------------------------------------------------------------------------
+
+	public NodeNameSymbolTable getSymbols() {
+		return symbols;
+	}
+
+	/**
+	 * O(size), see class doc
+	 */
+	public int size() {
+		return countIds(idBytes, idBytes.length);
+	}
+
+	public boolean isEmpty() {
+		return idBytes.length == 0;
+	}
+
+	/**
+	 * O(i), see class doc
+	 * @throws IndexOutOfBoundsException if i is not in [0, size())
+	 */
+	public int getId(int i) {
+		val pos = posOfId(i);
+		if (pos == idBytes.length) {
+			throw new IndexOutOfBoundsException("index: " + i);
+		}
+		return getVarInt(idBytes, pos);
+	}
+
+	/**
+	 * @return ids, decoded from varint bytes
+	 */
+	public int[] toIds() {
+		val bytes = idBytes;
+		val res = new int[countIds(bytes, bytes.length)];
+		int pos = 0;
+		for(int i = 0; i < res.length; i++) {
+			res[i] = getVarInt(bytes, pos);
+			pos = nextIdPos(bytes, pos);
+		}
+		return res;
+	}
+
+	public NodeName get(int i) {
+		return symbols.name(getId(i));
+	}
+
+	public int lastId() {
+		val bytes = idBytes;
+		if (bytes.length == 0) {
+			throw new IndexOutOfBoundsException("empty path");
+		}
+		return getVarInt(bytes, lastIdPos(bytes));
+	}
+
+	public NodeName last() {
+		return symbols.name(lastId());
+	}
+
+	public NodeName lastOrEmpty() {
+		if (idBytes.length == 0) return NodeName.EMPTY;
+		return last();
+	}
+
+	public IdNodeNamesPath toChild(NodeName childName) {
+		return toChild(symbols.intern(childName));
+	}
+
+	public IdNodeNamesPath toChild(int childId) {
+		val len = idBytes.length;
+		val res = Arrays.copyOf(idBytes, len + varIntSize(childId));
+		putVarInt(res, len, childId);
+		// derive child hashCode in O(1) when already computed
+		val h = hashCode;
+		val childHash = (h != 0)? HASH_PRIME * h + childId : 0;
+		return new IdNodeNamesPath(symbols, res, childHash);
+	}
+
+	public IdNodeNamesPath toParent() {
+		val bytes = idBytes;
+		if (bytes.length == 0) {
+			return this;
+		}
+		val lastPos = lastIdPos(bytes);
+		val res = Arrays.copyOf(bytes, lastPos);
+		// derive parent hashCode in O(1) when already computed: h = HASH_PRIME * parentHash + lastId
+		val h = hashCode;
+		val parentHash = (h != 0)? (h - getVarInt(bytes, lastPos)) * HASH_PRIME_INVERSE : 0;
+		return new IdNodeNamesPath(symbols, res, parentHash);
+	}
+
+	public IdNodeNamesPath subPath(int len) {
+		return new IdNodeNamesPath(symbols, Arrays.copyOf(idBytes, posOfId(len)), 0);
+	}
+
+	/**
+	 * @param start len to prune
+	 * @return pruned path, example "a/b/c"  pruneStartPath(1) -> "b/c"
+	 */
+	public IdNodeNamesPath pruneStartPath(int start) {
+		return new IdNodeNamesPath(symbols, Arrays.copyOfRange(idBytes, posOfId(start), idBytes.length), 0);
+	}
+
+	public boolean startsWith(NodeName name) {
+		if (idBytes.length == 0) {
+			return false;
+		}
+		return getVarInt(idBytes, 0) == symbols.idOf(name);
+	}
+
+	/**
+	 * @return true if prefix elements are the first elements of this path.
+	 * varint encoding is prefix-free, so comparing bytes is enough
+	 */
+	public boolean startsWith(IdNodeNamesPath prefix) {
+		val bytes = idBytes;
+		val prefixBytes = prefix.idBytes;
+		val len = prefixBytes.length;
+		if (len > bytes.length) {
+			return false;
+		}
+		for(int i = 0; i < len; i++) {
+			if (bytes[i] != prefixBytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static IdNodeNamesPath commonPathOf(IdNodeNamesPath left, IdNodeNamesPath right) {
+		val leftBytes = left.idBytes;
+		val rightBytes = right.idBytes;
+		val maxLen = Math.min(leftBytes.length, rightBytes.length);
+		int i = 0;
+		for(; i < maxLen; i++) {
+			if (leftBytes[i] != rightBytes[i]) {
+				break;
+			}
+		}
+		if (i == leftBytes.length) {
+			return left;
+		}
+		// common ids end at the last id end (byte without high bit) before first different byte
+		while(i > 0 && leftBytes[i - 1] < 0) {
+			i--;
+		}
+		return new IdNodeNamesPath(left.symbols, Arrays.copyOf(leftBytes, i), 0);
+	}
+
+	// ------------------------------------------------------------------------
+
+	public NodeNamesPath toNodeNamesPath() {
+		val bytes = idBytes;
+		val res = new NodeName[countIds(bytes, bytes.length)];
+		int pos = 0;
+		for(int i = 0; i < res.length; i++) {
+			res[i] = symbols.name(getVarInt(bytes, pos));
+			pos = nextIdPos(bytes, pos);
+		}
+		return NodeNamesPath.of(res);
+	}
+
+	public String toPathSlash() {
+		val bytes = idBytes;
+		StringBuilder sb = new StringBuilder(50 + 10 * bytes.length);
+		for(int pos = 0; pos < bytes.length; pos = nextIdPos(bytes, pos)) {
+			if (pos != 0) {
+				sb.append('/');
+			}
+			symbols.name(getVarInt(bytes, pos)).appendTo(sb);
+		}
+		return sb.toString();
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public int hashCode() {
+		int h = hashCode;
+		if (h == 0) {
+			// same as Arrays.hashCode(toIds())
+			val bytes = idBytes;
+			h = 1;
+			for(int pos = 0; pos < bytes.length; pos = nextIdPos(bytes, pos)) {
+				h = HASH_PRIME * h + getVarInt(bytes, pos);
+			}
+			hashCode = h;
+		}
+		return h;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IdNodeNamesPath other = (IdNodeNamesPath) obj;
+		if (symbols != other.symbols) {
+			return false; // ids are not comparable, see toNodeNamesPath()
+		}
+		val h = hashCode;
+		val otherH = other.hashCode;
+		if (h != 0 && otherH != 0 && h != otherH) {
+			return false;
+		}
+		return Arrays.equals(idBytes, other.idBytes);
+	}
+
+	@Override
+	public String toString() {
+		return toPathSlash();
+	}
+
+	// varint packing of ids
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return byte position of id at index, or bytes length for index == size()
+	 */
+	private int posOfId(int index) {
+		val bytes = idBytes;
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("index: " + index);
+		}
+		int pos = 0;
+		for(int i = 0; i < index; i++) {
+			if (pos == bytes.length) {
+				throw new IndexOutOfBoundsException("index: " + index);
+			}
+			pos = nextIdPos(bytes, pos);
+		}
+		return pos;
+	}
+
+	private static int countIds(byte[] bytes, int end) {
+		int res = 0;
+		for(int i = 0; i < end; i++) {
+			if (bytes[i] >= 0) {
+				res++;
+			}
+		}
+		return res;
+	}
+
+	private static int nextIdPos(byte[] bytes, int pos) {
+		while(bytes[pos] < 0) {
+			pos++;
+		}
+		return pos + 1;
+	}
+
+	private static int lastIdPos(byte[] bytes) {
+		int pos = bytes.length - 1;
+		while(pos > 0 && bytes[pos - 1] < 0) {
+			pos--;
+		}
+		return pos;
+	}
+
+	private static int varIntSize(int id) {
+		int res = 1;
+		for(int v = id >>> 7; v != 0; v >>>= 7) {
+			res++;
+		}
+		return res;
+	}
+
+	/**
+	 * @return position after written bytes
+	 */
+	private static int putVarInt(byte[] bytes, int pos, int id) {
+		int v = id;
+		while((v & ~0x7F) != 0) {
+			bytes[pos++] = (byte) (0x80 | (v & 0x7F));
+			v >>>= 7;
+		}
+		bytes[pos++] = (byte) v;
+		return pos;
+	}
+
+	private static int getVarInt(byte[] bytes, int pos) {
+		int res = 0;
+		int shift = 0;
+		for(;;) {
+			val b = bytes[pos++];
+			res |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return res;
+			}
+			shift += 7;
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+package org.path4j.symbols;
+
+import java.util.Arrays;
+
+import org.path4j.NodeName;
+import org.path4j.NodeNameEncoder;
+import org.path4j.NodeNamesPath;
+
+import lombok.val;
+
+/**
+ * dictionary of distinct names, each one identified by a dense int id (0, 1, 2..),
+ * for representing paths as packed ids, see IdNodeNamesPath.
+ *
+ * ids are never removed. Lookup by id is lock-free, adding names is synchronized
+ */
+public class NodeNameSymbolTable {
+
+	private static final int NO_ID = -1;
+
+	private final NodeNameEncoder encoder;
+
+	/** names by id, copied-on-grow */
+	private volatile NodeName[] names;
+	private int count;
+
+	/** open addressing table of ids, NO_ID for empty slots, guarded by "this" */
+	private int[] table;
+
+	// ------------------------------------------------------------------------
+
+	public NodeNameSymbolTable(NodeNameEncoder encoder) {
+		this(encoder, 1024);
+	}
+
+	public NodeNameSymbolTable(NodeNameEncoder encoder, int initialCapacity) {
+		this.encoder = encoder;
+		int tableSize = 16;
+		while(tableSize < 2 * initialCapacity) {
+			tableSize <<= 1;
+		}
+		this.names = new NodeName[tableSize / 2];
+		this.table = new int[tableSize];
+		Arrays.fill(table, NO_ID);
+	}
+
+	// ------------------------------------------------------------------------
+
+	public NodeNameEncoder getEncoder() {
+		return encoder;
+	}
+
+	/**
+	 * @return name of id, obtained from idOf() or intern()
+	 */
+	public NodeName name(int id) {
+		return names[id];
+	}
+
+	public synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * @return id of name, or -1 if not present
+	 */
+	public synchronized int idOf(NodeName name) {
+		val mask = table.length - 1;
+		int slot = spread(name.hashCode()) & mask;
+		for(;;) {
+			val id = table[slot];
+			if (id == NO_ID || names[id].equals(name)) {
+				return id;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * @return id of name, added when not already present
+	 */
+	public synchronized int intern(NodeName name) {
+		val mask = table.length - 1;
+		int slot = spread(name.hashCode()) & mask;
+		for(;;) {
+			val id = table[slot];
+			if (id == NO_ID) {
+				break;
+			}
+			if (names[id].equals(name)) {
+				return id;
+			}
+			slot = (slot + 1) & mask;
+		}
+		val id = count;
+		if (id == names.length) {
+			this.names = Arrays.copyOf(names, id * 2);
+		}
+		names[id] = name;
+		table[slot] = id;
+		count++;
+		if (count * 2 > table.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	public int intern(String name) {
+		return intern(encoder.encode(name));
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private void rehash() {
+		val newTable = new int[table.length * 2];
+		Arrays.fill(newTable, NO_ID);
+		val mask = newTable.length - 1;
+		for(int id = 0; id < count; id++) {
+			int slot = spread(names[id].hashCode()) & mask;
+			while(newTable[slot] != NO_ID) {
+				slot = (slot + 1) & mask;
+			}
+			newTable[slot] = id;
+		}
+		this.table = newTable;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * encode a "/" separated path, with same normalization as NodeNameEncoder.encodePath()
+	 */
+	public IdNodeNamesPath encodePath(String path) {
+		return toIdPath(encoder.encodePath(path));
+	}
+
+	public IdNodeNamesPath toIdPath(NodeNamesPath path) {
+		val len = path.size();
+		if (len == 0) {
+			return IdNodeNamesPath.root(this);
+		}
+		val ids = new int[len];
+		for(int i = 0; i < len; i++) {
+			ids[i] = intern(path.get(i));
+		}
+		return IdNodeNamesPath.of(this, ids);
+	}
+
+}
@@ -0,0 +1,170 @@
+package org.path4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+import org.path4j.encoder.NodeNameEncoderOption;
+import org.path4j.encoder.NodeNameEncoderOption.EncodeSizeResult;
+import org.path4j.impl.encoders.ByteArrayNodeNameEncoderOptions;
+import org.path4j.impl.encoders.ByteStructNodeNameEncoderOptions;
+import org.path4j.impl.encoders.CharStructNodeNameEncoderOptions;
+import org.path4j.impl.encoders.DefaultNodeNameEncoderOptions;
+import org.path4j.impl.encoders.LongPackedNodeNameEncoderOptions;
+
+import lombok.val;
+
+/**
+ * equals()/hashCode()/compareTo() of NodeName must not depend on encoding:
+ * same as String, for random names encoded by every encoder option
+ */
+public class NodeNameHashContractTest {
+
+	private static final int NAME_COUNT = 2000;
+
+	/** simple chars (01-7F), other latin-1 chars, and chars needing 2 or 3 bytes in modified UTF-8 */
+	private static final String SIMPLE_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789._-$ +~";
+	private static final String OTHER_CHARS = "\u00e9\u00ff\u0100\u07ff\u0800\u4e2d\uffff\u0000";
+
+	private static List<NodeNameEncoderOption> allOptions() {
+		val res = new ArrayList<NodeNameEncoderOption>();
+		res.addAll(ByteStructNodeNameEncoderOptions.DEFAULTS);
+		res.addAll(CharStructNodeNameEncoderOptions.DEFAULTS);
+		res.addAll(LongPackedNodeNameEncoderOptions.DEFAULTS);
+		res.addAll(ByteArrayNodeNameEncoderOptions.DEFAULTS);
+		res.add(DefaultNodeNameEncoderOptions.CHAR_ARRAY_OPTION);
+		res.add(DefaultNodeNameEncoderOptions.STRING_OPTION);
+		return res;
+	}
+
+	private static List<String> randomNames(long seed) {
+		val rand = new Random(seed);
+		val res = new ArrayList<String>();
+		for(int i = 0; i < NAME_COUNT; i++) {
+			val length = 1 + rand.nextInt((rand.nextInt(4) == 0)? 64 : 20);
+			val simpleOnly = rand.nextInt(3) != 0;
+			val sb = new StringBuilder(length);
+			for(int c = 0; c < length; c++) {
+				val chars = (simpleOnly || rand.nextInt(4) != 0)? SIMPLE_CHARS : OTHER_CHARS;
+				sb.append(chars.charAt(rand.nextInt(chars.length())));
+			}
+			res.add(sb.toString());
+		}
+		return res;
+	}
+
+	/**
+	 * @return all encodings of name, by every option accepting it, from String, char[] and ISO-8859-1 byte[] sources
+	 */
+	private static List<NodeName> encodeAll(List<NodeNameEncoderOption> options, String name) {
+		val res = new ArrayList<NodeName>();
+		val sizeResult = new EncodeSizeResult();
+		val chars = name.toCharArray();
+		val isLatin1 = name.chars().allMatch(c -> c <= 0xFF);
+		val bytes = name.getBytes(StandardCharsets.ISO_8859_1);
+		for(val option : options) {
+			addIfEncoded(res, option.tryEncode(name, Integer.MAX_VALUE, sizeResult));
+			addIfEncoded(res, option.tryEncode("/" + name + "/", 1, name.length(), Integer.MAX_VALUE, sizeResult));
+			addIfEncoded(res, option.tryEncode(chars, 0, chars.length, Integer.MAX_VALUE, sizeResult));
+			if (isLatin1) {
+				addIfEncoded(res, option.tryEncode(bytes, 0, bytes.length, Integer.MAX_VALUE, sizeResult));
+			}
+		}
+		return res;
+	}
+
+	private static void addIfEncoded(List<NodeName> res, NodeName encoded) {
+		if (encoded != null) {
+			res.add(encoded);
+		}
+	}
+
+	private static void assertSameAsString(String name, NodeName encoded) {
+		val msg = "name '" + name + "' encoded as " + encoded.getClass().getSimpleName();
+		assertEquals(msg, name, encoded.toText());
+		assertEquals(msg, name.length(), encoded.length());
+		assertEquals(msg, name.hashCode(), encoded.hashCode());
+		assertTrue(msg, encoded.contentEquals(name));
+	}
+
+	private static int sign(int value) {
+		return Integer.signum(value);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testAllOptions_sameAsString() {
+		val options = allOptions();
+		for(val name : randomNames(123)) {
+			for(val encoded : encodeAll(options, name)) {
+				assertSameAsString(name, encoded);
+			}
+		}
+	}
+
+	@Test
+	public void testAllOptions_equalsHashCode_acrossEncodings() {
+		val options = allOptions();
+		for(val name : randomNames(456)) {
+			val encodeds = encodeAll(options, name);
+			// at least STRING_OPTION and CHAR_ARRAY_OPTION accept any name
+			assertTrue(encodeds.size() >= 2);
+			for(val a : encodeds) {
+				for(val b : encodeds) {
+					val msg = "name '" + name + "' encoded as " + a.getClass().getSimpleName() + " and " + b.getClass().getSimpleName();
+					assertTrue(msg, a.equals(b));
+					assertEquals(msg, a.hashCode(), b.hashCode());
+					assertEquals(msg, 0, a.compareTo(b));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAllOptions_compareTo_sameAsString() {
+		val options = allOptions();
+		val names = randomNames(789);
+		for(int i = 1; i < names.size(); i++) {
+			val name = names.get(i);
+			// also compare with a name sharing a prefix
+			val prevName = names.get(i - 1);
+			val prefixName = name.substring(0, name.length() / 2) + prevName;
+			val encodeds = encodeAll(options, name);
+			val otherEncodeds = encodeAll(options, (i % 2 == 0)? prevName : prefixName);
+			for(val a : encodeds) {
+				for(val b : otherEncodeds) {
+					val expected = sign(a.toText().compareTo(b.toText()));
+					val msg = "'" + a + "' as " + a.getClass().getSimpleName() + " compared to '" + b + "' as " + b.getClass().getSimpleName();
+					assertEquals(msg, expected, sign(a.compareTo(b)));
+					assertEquals(msg, expected == 0, a.equals(b));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDefaultEncoder_sameAsString() {
+		val encoder = DefaultNodeNameEncoder.createDefault();
+		val options = allOptions();
+		for(val name : randomNames(1011)) {
+			val encoded = encoder.encode(name);
+			assertNotNull(encoded);
+			assertSameAsString(name, encoded);
+			val utf8 = name.getBytes(StandardCharsets.UTF_8);
+			assertSameAsString(name, encoder.encode(utf8, 0, utf8.length));
+			for(val other : encodeAll(options, name)) {
+				assertTrue(encoded.equals(other));
+				assertTrue(other.equals(encoded));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+package org.path4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+
+import lombok.val;
+
+/**
+ * round-trip of NodeNamesPathSetWriter then NodeNamesPathSetReader:
+ * front-coded shared prefixes, name dictionary, and non-ascii names
+ */
+public class NodeNamesPathSetWriterTest {
+
+	private static final NodeNameEncoder ENCODER = DefaultNodeNameEncoder.createDefault();
+
+	/** latin-1, 2 and 3 bytes chars, supplementary char (surrogate pair), unpaired surrogates, and \u0000 */
+	private static final String[] NON_ASCII_NAMES = {
+			"\u00e9t\u00e9", "\u00ff", "\u0100\u07ff", "\u0800\u4e2d\u6587", "\uffff",
+			"emoji\uD83D\uDE00", "high\uD800", "\uDC00low", "\uDC00\uD800", "nul\u0000char"
+	};
+
+	private static List<NodeNamesPath> testPaths() {
+		val res = new ArrayList<NodeNamesPath>();
+		res.add(NodeNamesPath.ROOT);
+		for(int i = 0; i < 30; i++) {
+			for(int j = 0; j < 5; j++) {
+				res.add(path("usr", "lib", "module" + i, "file" + j + ".so"));
+				res.add(path("home", "user", NON_ASCII_NAMES[(i + j) % NON_ASCII_NAMES.length], "file" + j));
+			}
+			res.add(path("usr", "lib", "module" + i));
+		}
+		for(val name : NON_ASCII_NAMES) {
+			res.add(path(name));
+			res.add(path("data", name, name));
+		}
+		res.add(path("usr"));
+		res.add(path("usr", "lib"));
+		// duplicates, written once
+		res.add(path("usr", "lib"));
+		res.add(path("data", NON_ASCII_NAMES[0], NON_ASCII_NAMES[0]));
+		return res;
+	}
+
+	private static NodeNamesPath path(String... elements) {
+		val names = new NodeName[elements.length];
+		for(int i = 0; i < elements.length; i++) {
+			names[i] = ENCODER.encode(elements[i]);
+		}
+		return NodeNamesPath.of(names);
+	}
+
+	private static List<NodeNamesPath> sortedDistinct(List<NodeNamesPath> paths) {
+		val set = new TreeSet<NodeNamesPath>(NodeNamesPathSetWriter.PATH_COMPARATOR);
+		set.addAll(paths);
+		return new ArrayList<>(set);
+	}
+
+	private static void assertSamePaths(List<NodeNamesPath> expected, List<NodeNamesPath> actual) {
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			val expectedPath = expected.get(i);
+			val actualPath = actual.get(i);
+			assertEquals(expectedPath, actualPath);
+			assertEquals(Arrays.asList(expectedPath.toTexts()), Arrays.asList(actualPath.toTexts()));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testWriteRead_heapBuffer() {
+		val paths = testPaths();
+		val data = NodeNamesPathSetWriter.toByteArray(paths);
+		val res = NodeNamesPathSetReader.readAll(data, ENCODER);
+		assertSamePaths(sortedDistinct(paths), res);
+	}
+
+	@Test
+	public void testWriteRead_directBuffer() {
+		val paths = testPaths();
+		val data = NodeNamesPathSetWriter.toByteArray(paths);
+		val buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data);
+		buffer.flip();
+		val reader = new NodeNamesPathSetReader(buffer, ENCODER);
+		assertSamePaths(sortedDistinct(paths), reader.readAll());
+		assertEquals(data.length, buffer.position());
+	}
+
+	@Test
+	public void testDictionary_distinctNames_mostFrequentFirst() {
+		val paths = testPaths();
+		val reader = new NodeNamesPathSetReader(ByteBuffer.wrap(NodeNamesPathSetWriter.toByteArray(paths)), ENCODER);
+		val expectedNames = new TreeSet<String>();
+		for(val path : paths) {
+			expectedNames.addAll(Arrays.asList(path.toTexts()));
+		}
+		val nameCount = reader.getNameCount();
+		val names = new TreeSet<String>();
+		for(int i = 0; i < nameCount; i++) {
+			names.add(reader.getName(i).toText());
+		}
+		assertEquals(expectedNames, names);
+		// "usr" and "lib" are written once per path of their sub-tree, "file0".."file4" in every module
+		assertTrue(reader.getName(0).toText().startsWith("file"));
+	}
+
+	@Test
+	public void testRead_sharesPrefixNamesOfPreviousPath() {
+		val paths = Arrays.asList(path("a", "b", "c1"), path("a", "b", "c2"), path("a", "x"));
+		val reader = new NodeNamesPathSetReader(ByteBuffer.wrap(NodeNamesPathSetWriter.toByteArray(paths)), ENCODER);
+		val p1 = reader.next();
+		val p2 = reader.next();
+		val p3 = reader.next();
+		assertEquals(paths, Arrays.asList(p1, p2, p3));
+		assertSame(p1.get(0), p2.get(0));
+		assertSame(p1.get(1), p2.get(1));
+		assertSame(p2.get(0), p3.get(0));
+	}
+
+	@Test
+	public void testWriteRead_unpairedSurrogates_notReplaced() {
+		val paths = Arrays.asList(path("high\uD800"), path("\uDC00low"));
+		val res = NodeNamesPathSetReader.readAll(NodeNamesPathSetWriter.toByteArray(paths), ENCODER);
+		assertEquals("high\uD800", res.get(0).get(0).toText());
+		assertEquals("\uDC00low", res.get(1).get(0).toText());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrite_nameTooLong() {
+		val sb = new StringBuilder();
+		for(int i = 0; i < 0x10000; i++) {
+			sb.append('a');
+		}
+		NodeNamesPathSetWriter.toByteArray(Arrays.asList(path(sb.toString())));
+	}
+
+}
@@ -0,0 +1,279 @@
+package org.path4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+
+import lombok.val;
+
+/**
+ * PathTrie, compared to a HashMap, across children representations:
+ * single Node, inline Node[] (up to 8 children), and HashChildren (9 children and more, back to Node[] at 4)
+ */
+public class PathTrieTest {
+
+	private static final NodeNameEncoder ENCODER = DefaultNodeNameEncoder.createDefault();
+
+	private static NodeNamesPath path(String path) {
+		return ENCODER.encodePath(path);
+	}
+
+	/**
+	 * @return count distinct concatenations of "Aa"/"BB", all with same hashCode, for probing collisions in HashChildren
+	 */
+	private static List<String> collidingNames(int count) {
+		val res = new ArrayList<String>();
+		for(int i = 0; i < count; i++) {
+			val sb = new StringBuilder();
+			for(int bit = 0; bit < 5; bit++) {
+				sb.append(((i >>> bit) & 1) == 0? "Aa" : "BB");
+			}
+			res.add(sb.toString());
+		}
+		return res;
+	}
+
+	private static void assertSameContent(Map<NodeNamesPath,Integer> expected, PathTrie<Integer> trie) {
+		assertEquals(expected.size(), trie.size());
+		assertEquals(expected.isEmpty(), trie.isEmpty());
+		for(val e : expected.entrySet()) {
+			assertEquals(e.getKey().toString(), e.getValue(), trie.get(e.getKey()));
+			assertTrue(trie.containsKey(e.getKey()));
+			assertTrue(trie.containsPrefix(e.getKey()));
+		}
+		val iterated = new HashMap<NodeNamesPath,Integer>();
+		for(Iterator<PathTrie.Entry<Integer>> it = trie.iterator(); it.hasNext(); ) {
+			val e = it.next();
+			assertNull(iterated.put(e.getKey(), e.getValue()));
+		}
+		assertEquals(expected, iterated);
+		val forEached = new HashMap<NodeNamesPath,Integer>();
+		trie.forEach((path, value) -> assertNull(forEached.put(path, value)));
+		assertEquals(expected, forEached);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testPutRemove_acrossInlineAndHashBoundaries() {
+		for(int childCount = 1; childCount <= 20; childCount++) {
+			for(int order = 0; order < 3; order++) {
+				val trie = new PathTrie<Integer>();
+				val expected = new HashMap<NodeNamesPath,Integer>();
+				val childPaths = new ArrayList<NodeNamesPath>();
+				for(int i = 0; i < childCount; i++) {
+					val p = path("dir/child" + i);
+					childPaths.add(p);
+					assertNull(trie.put(p, i));
+					expected.put(p, i);
+					assertSameContent(expected, trie);
+				}
+				assertEquals(childCount, trie.size());
+				assertFalse(trie.containsKey(path("dir")));
+				assertTrue(trie.containsPrefix(path("dir")));
+				assertNull(trie.get(path("dir/child" + childCount)));
+
+				// remove in insertion order, reverse order, or shuffled: crossing 9 -> 8 children, and hash -> inline at 4
+				if (order == 1) {
+					Collections.reverse(childPaths);
+				} else if (order == 2) {
+					Collections.shuffle(childPaths, new Random(childCount));
+				}
+				for(val p : childPaths) {
+					assertEquals(expected.remove(p), trie.remove(p));
+					assertNull(trie.remove(p));
+					assertSameContent(expected, trie);
+				}
+				// empty "dir" node is pruned
+				assertFalse(trie.containsPrefix(path("dir")));
+				assertTrue(trie.isEmpty());
+			}
+		}
+	}
+
+	@Test
+	public void testPutRemove_collidingNames_inHashChildren() {
+		val names = collidingNames(24);
+		assertEquals(names.get(0).hashCode(), names.get(23).hashCode());
+		val trie = new PathTrie<Integer>();
+		val expected = new HashMap<NodeNamesPath,Integer>();
+		for(int i = 0; i < names.size(); i++) {
+			val p = path("dir/" + names.get(i));
+			trie.put(p, i);
+			expected.put(p, i);
+			// also a regular name, interleaved in probe sequences
+			val other = path("dir/other" + i);
+			trie.put(other, -i);
+			expected.put(other, -i);
+		}
+		assertSameContent(expected, trie);
+		// remove every other colliding name: backward-shift deletion must keep the following ones reachable
+		for(int i = 0; i < names.size(); i += 2) {
+			val p = path("dir/" + names.get(i));
+			assertEquals(expected.remove(p), trie.remove(p));
+			assertSameContent(expected, trie);
+		}
+		// re-add then remove all
+		for(int i = 0; i < names.size(); i += 2) {
+			val p = path("dir/" + names.get(i));
+			trie.put(p, 100 + i);
+			expected.put(p, 100 + i);
+		}
+		assertSameContent(expected, trie);
+		for(val p : new ArrayList<>(expected.keySet())) {
+			assertEquals(expected.remove(p), trie.remove(p));
+		}
+		assertSameContent(expected, trie);
+	}
+
+	@Test
+	public void testPut_replaceValue() {
+		val trie = new PathTrie<Integer>();
+		assertNull(trie.put(path("a/b"), 1));
+		assertEquals(Integer.valueOf(1), trie.put(path("a/b"), 2));
+		assertEquals(1, trie.size());
+		assertEquals(Integer.valueOf(2), trie.get(path("a/b")));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testPut_nullValue() {
+		new PathTrie<Integer>().put(path("a"), null);
+	}
+
+	@Test
+	public void testRemove_keepsParentWithValueOrChildren() {
+		val trie = new PathTrie<Integer>();
+		trie.put(path("a"), 1);
+		trie.put(path("a/b/c"), 2);
+		trie.put(path("a/b/d"), 3);
+		assertEquals(Integer.valueOf(2), trie.remove(path("a/b/c")));
+		assertTrue(trie.containsPrefix(path("a/b")));
+		assertEquals(Integer.valueOf(3), trie.get(path("a/b/d")));
+		assertEquals(Integer.valueOf(3), trie.remove(path("a/b/d")));
+		assertFalse(trie.containsPrefix(path("a/b")));
+		// "a" has a value, so it is not pruned
+		assertTrue(trie.containsKey(path("a")));
+		assertNull(trie.remove(path("a/b")));
+		assertNull(trie.remove(path("x/y")));
+		assertEquals(1, trie.size());
+	}
+
+	@Test
+	public void testLongestPrefixMatch() {
+		val trie = new PathTrie<String>();
+		assertNull(trie.longestPrefixMatch(path("a/b")));
+		trie.put(path("a"), "a");
+		trie.put(path("a/b/c"), "abc");
+		// siblings of "b", over the inline array size
+		for(int i = 0; i < 12; i++) {
+			trie.put(path("a/x" + i + "/y"), "axy" + i);
+		}
+
+		val m1 = trie.longestPrefixMatch(path("a/b/c/d/e"));
+		assertEquals(path("a/b/c"), m1.getKey());
+		assertEquals("abc", m1.getValue());
+
+		val m2 = trie.longestPrefixMatch(path("a/b"));
+		assertEquals(path("a"), m2.getKey());
+		assertEquals("a", m2.getValue());
+
+		assertEquals(path("a/x7/y"), trie.longestPrefixMatch(path("a/x7/y/z")).getKey());
+		assertEquals(path("a"), trie.longestPrefixMatch(path("a/x7")).getKey());
+		assertEquals(path("a"), trie.longestPrefixMatch(path("a/unknown/y")).getKey());
+		assertNull(trie.longestPrefixMatch(path("b/c")));
+		assertNull(trie.longestPrefixMatch(NodeNamesPath.ROOT));
+
+		// root value matches any path
+		trie.put(NodeNamesPath.ROOT, "root");
+		val m3 = trie.longestPrefixMatch(path("b/c"));
+		assertEquals(NodeNamesPath.ROOT, m3.getKey());
+		assertEquals("root", m3.getValue());
+
+		// after removing, match falls back to shorter prefix
+		trie.remove(path("a/b/c"));
+		assertEquals(path("a"), trie.longestPrefixMatch(path("a/b/c/d")).getKey());
+		for(int i = 0; i < 12; i++) {
+			trie.remove(path("a/x" + i + "/y"));
+		}
+		assertEquals(path("a"), trie.longestPrefixMatch(path("a/x7/y/z")).getKey());
+	}
+
+	@Test
+	public void testCommonPath() {
+		val trie = new PathTrie<Integer>();
+		assertNull(trie.commonPath());
+		trie.put(path("a/b/c/d"), 1);
+		trie.put(path("a/b/c/e"), 2);
+		assertEquals(path("a/b/c"), trie.commonPath());
+		assertEquals(path("a/b/c"), trie.commonPathOf(path("a")));
+		assertNull(trie.commonPathOf(path("x")));
+		assertEquals(path("a/b"), trie.commonPathWith(path("a/b/x/y")));
+	}
+
+	@Test
+	public void testSubtreeIterator() {
+		val trie = new PathTrie<Integer>();
+		val expected = new HashMap<NodeNamesPath,Integer>();
+		for(int i = 0; i < 10; i++) {
+			for(int j = 0; j < i; j++) {
+				val p = path("root/d" + i + "/f" + j);
+				trie.put(p, 10 * i + j);
+				if (i == 9) {
+					expected.put(p, 10 * i + j);
+				}
+			}
+		}
+		val prefix = path("root/d9");
+		val iterated = new HashMap<NodeNamesPath,Integer>();
+		for(Iterator<PathTrie.Entry<Integer>> it = trie.subtreeIterator(prefix); it.hasNext(); ) {
+			val e = it.next();
+			iterated.put(e.getKey(), e.getValue());
+		}
+		assertEquals(expected, iterated);
+		assertFalse(trie.subtreeIterator(path("unknown")).hasNext());
+	}
+
+	@Test
+	public void testRandomPutRemove_sameAsHashMap() {
+		val rand = new Random(42);
+		val trie = new PathTrie<Integer>();
+		val expected = new HashMap<NodeNamesPath,Integer>();
+		for(int step = 0; step < 20000; step++) {
+			val depth = 1 + rand.nextInt(3);
+			val sb = new StringBuilder();
+			for(int d = 0; d < depth; d++) {
+				if (d > 0) {
+					sb.append('/');
+				}
+				// fan-out varying around the 8/9 children boundary
+				sb.append("n").append(rand.nextInt(4 + 4 * d + rand.nextInt(10)));
+			}
+			val p = path(sb.toString());
+			if (rand.nextInt(3) != 0) {
+				assertEquals(expected.put(p, step), trie.put(p, step));
+			} else {
+				assertEquals(expected.remove(p), trie.remove(p));
+			}
+			if (step % 1000 == 0) {
+				assertSameContent(expected, trie);
+			}
+		}
+		assertSameContent(expected, trie);
+		trie.clear();
+		assertTrue(trie.isEmpty());
+		assertNull(trie.get(path("n1")));
+	}
+
+}
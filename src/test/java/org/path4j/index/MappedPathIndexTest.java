@@ -0,0 +1,202 @@
+package org.path4j.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.path4j.NodeName;
+import org.path4j.NodeNameEncoder;
+import org.path4j.NodeNamesPath;
+import org.path4j.NodeNamesPathSetWriter;
+import org.path4j.encoder.DefaultNodeNameEncoder;
+
+import lombok.val;
+
+/**
+ * write with MappedPathIndexWriter, then open and lookup with MappedPathIndex
+ */
+public class MappedPathIndexTest {
+
+	private static final NodeNameEncoder ENCODER = DefaultNodeNameEncoder.createDefault();
+
+	private static List<NodeNamesPath> testPaths() {
+		val res = new ArrayList<NodeNamesPath>();
+		for(int i = 0; i < 20; i++) {
+			for(int j = 0; j < (i % 4) + 1; j++) {
+				res.add(ENCODER.encodePath("usr/lib/module" + i + "/file" + j));
+			}
+		}
+		res.add(ENCODER.encodePath("usr/lib"));
+		res.add(ENCODER.encodePath("home/\u00e9t\u00e9/\u4e2d\u6587"));
+		res.add(ENCODER.encodePath("home/user/a/b/c/d"));
+		res.add(ENCODER.encodePath("file0"));
+		// duplicate
+		res.add(ENCODER.encodePath("usr/lib"));
+		return res;
+	}
+
+	private static MappedPathIndex writeAndOpen(List<NodeNamesPath> paths) throws IOException {
+		val file = Files.createTempFile("path4j-index", ".idx");
+		try {
+			MappedPathIndexWriter.write(file, paths);
+			// mapped buffers remain valid after channel is closed
+			return MappedPathIndex.open(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static List<NodeNamesPath> sortedDistinct(List<NodeNamesPath> paths) {
+		val set = new TreeSet<NodeNamesPath>(NodeNamesPathSetWriter.PATH_COMPARATOR);
+		set.addAll(paths);
+		return new ArrayList<>(set);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testLookup_pathsAndParents() throws IOException {
+		val paths = testPaths();
+		val index = writeAndOpen(paths);
+		val distinct = sortedDistinct(paths);
+		assertEquals(distinct.size(), index.size());
+		for(val path : distinct) {
+			val nodeId = index.lookup(path);
+			assertTrue(nodeId != MappedPathIndex.NOT_FOUND);
+			assertTrue(index.isPath(nodeId));
+			assertTrue(index.contains(path));
+			assertEquals(path, index.toPath(nodeId));
+			assertEquals(path.size(), index.depthOf(nodeId));
+			// parents are nodes, without path flag unless also in the set
+			if (path.size() > 1) {
+				val parent = path.toParent();
+				val parentId = index.lookup(parent);
+				assertTrue(parentId != MappedPathIndex.NOT_FOUND);
+				assertEquals(distinct.contains(parent), index.isPath(parentId));
+				assertEquals(parentId, index.parentOf(nodeId));
+			}
+		}
+		assertFalse(index.contains(ENCODER.encodePath("usr")));
+		assertTrue(index.lookup(ENCODER.encodePath("usr")) != MappedPathIndex.NOT_FOUND);
+		assertEquals(MappedPathIndex.NOT_FOUND, index.lookup(ENCODER.encodePath("usr/lib/unknown")));
+		assertEquals(MappedPathIndex.NOT_FOUND, index.lookup(ENCODER.encodePath("usr/lib/file0")));
+		assertEquals(MappedPathIndex.NOT_FOUND, index.lookup(ENCODER.encodePath("home/user/a/b/c/d/e")));
+		assertFalse(index.isPath(MappedPathIndex.ROOT_ID));
+		assertEquals(MappedPathIndex.ROOT_ID, index.lookup(NodeNamesPath.ROOT));
+	}
+
+	@Test
+	public void testNames_sortedDistinct() throws IOException {
+		val paths = testPaths();
+		val index = writeAndOpen(paths);
+		val expected = new TreeSet<NodeName>();
+		for(val path : paths) {
+			for(int i = 0; i < path.size(); i++) {
+				expected.add(path.get(i));
+			}
+		}
+		assertEquals(expected.size(), index.getNameCount());
+		int nameId = 0;
+		for(val name : expected) {
+			val mapped = index.name(nameId);
+			assertEquals(name, mapped);
+			assertEquals(name.toText(), mapped.toText());
+			assertEquals(name.hashCode(), mapped.hashCode());
+			assertEquals(nameId, index.nameIdOf(name));
+			assertEquals(nameId, index.nameIdOf(name.toText()));
+			nameId++;
+		}
+		assertEquals(MappedPathIndex.NOT_FOUND, index.nameIdOf("unknown"));
+		assertEquals(MappedPathIndex.NOT_FOUND, index.nameIdOf("\u00e9t"));
+	}
+
+	/**
+	 * nodes are numbered breadth-first, children of node i are the contiguous nodes [firstChildOf(i), firstChildOf(i + 1)),
+	 * sorted by name id. Last node relies on the sentinel record for its child range
+	 */
+	@Test
+	public void testNodes_breadthFirstChildRanges_sentinel() throws IOException {
+		val index = writeAndOpen(testPaths());
+		val nodeCount = index.getNodeCount();
+		assertEquals(MappedPathIndex.NOT_FOUND, index.parentOf(MappedPathIndex.ROOT_ID));
+		assertEquals(MappedPathIndex.NOT_FOUND, index.nameIdOfNode(MappedPathIndex.ROOT_ID));
+		int childTotal = 0;
+		int prevDepth = 0;
+		val seen = new HashSet<Integer>();
+		for(int nodeId = 0; nodeId < nodeCount; nodeId++) {
+			val depth = index.depthOf(nodeId);
+			assertTrue(depth >= prevDepth);
+			prevDepth = depth;
+			val first = index.firstChildOf(nodeId);
+			val count = index.childCount(nodeId);
+			assertEquals(index.firstChildOf(nodeId + 1), first + count);
+			int prevNameId = -1;
+			for(int child = first; child < first + count; child++) {
+				assertTrue(seen.add(child));
+				assertEquals(nodeId, index.parentOf(child));
+				assertEquals(depth + 1, index.depthOf(child));
+				val childNameId = index.nameIdOfNode(child);
+				assertTrue(childNameId > prevNameId);
+				prevNameId = childNameId;
+				assertEquals(child, index.childOf(nodeId, childNameId));
+			}
+			assertEquals(count, index.childNames(nodeId).size());
+			childTotal += count;
+		}
+		// every node but root is the child of one node
+		assertEquals(nodeCount - 1, childTotal);
+		// sentinel: last node is a leaf, child range ends at nodeCount
+		assertEquals(nodeCount, index.firstChildOf(nodeCount));
+		assertEquals(0, index.childCount(nodeCount - 1));
+		assertEquals(MappedPathIndex.NOT_FOUND, index.childOf(nodeCount - 1, 0));
+	}
+
+	@Test
+	public void testPathFlag_notInNameId() throws IOException {
+		val index = writeAndOpen(testPaths());
+		val lib = index.lookup(ENCODER.encodePath("usr/lib"));
+		val usr = index.lookup(ENCODER.encodePath("usr"));
+		assertTrue(index.isPath(lib));
+		assertFalse(index.isPath(usr));
+		assertEquals("lib", index.nameOfNode(lib).toText());
+		assertEquals("usr", index.nameOfNode(usr).toText());
+		assertEquals(index.nameIdOf("lib"), index.nameIdOfNode(lib));
+		assertEquals(lib, index.childOf(usr, index.nameIdOf("lib")));
+		assertEquals(Arrays.asList("lib"), toTexts(index.childNames(ENCODER.encodePath("usr"))));
+	}
+
+	@Test
+	public void testForEachInSubtree_sorted() throws IOException {
+		val paths = testPaths();
+		val index = writeAndOpen(paths);
+		val res = new ArrayList<NodeNamesPath>();
+		index.forEachInSubtree(NodeNamesPath.ROOT, nodeId -> res.add(index.toPath(nodeId)));
+		assertEquals(sortedDistinct(paths), res);
+
+		val prefix = ENCODER.encodePath("usr/lib/module3");
+		val subtree = new ArrayList<NodeNamesPath>();
+		index.forEachInSubtree(prefix, nodeId -> subtree.add(index.toPath(nodeId)));
+		assertEquals(4, subtree.size());
+		for(val path : subtree) {
+			assertTrue(path.toPathSlash().startsWith("usr/lib/module3/file"));
+		}
+	}
+
+	private static List<String> toTexts(List<NodeName> names) {
+		val res = new ArrayList<String>();
+		for(val name : names) {
+			res.add(name.toText());
+		}
+		return res;
+	}
+
+}